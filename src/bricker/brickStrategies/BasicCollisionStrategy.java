@@ -1,6 +1,7 @@
 package bricker.brickStrategies;
 
 import bricker.main.BrickerGameManager;
+import bricker.utils.FlightEvents;
 import danogl.GameObject;
 import danogl.collisions.Layer;
 import danogl.util.Counter;
@@ -36,11 +37,42 @@ public class BasicCollisionStrategy implements CollisionStrategy {
      * @param object2 The first game object involved in the collision (typically a brick).
      * @param object1 The second game object involved in the collision (typically the ball).
      * The default behavior removes the object obj1 (usually a brick) from the game world.
+     * Emits a {@link FlightEvents.StrategyApplied} event while recording.
      */
     @Override
     public void onCollision(GameObject object1, GameObject object2) {
-        if (gameManager.removeGameObject(object1, Layer.STATIC_OBJECTS)) {
+        FlightEvents.StrategyApplied event = new FlightEvents.StrategyApplied();
+        event.begin();
+        removeBrick(object1);
+        applyEffect(object1, object2);
+        if (event.shouldCommit()) {
+            event.strategy = getClass().getSimpleName();
+            event.depth = 0;
+            event.commit();
+        }
+    }
+
+    /**
+     * Removes the brick from the game and decrements the brick counter, if the brick was still in the game.
+     *
+     * @param brick The brick that was hit.
+     * @return true if the brick was removed by this call, false if it had already been removed.
+     */
+    boolean removeBrick(GameObject brick) {
+        if (gameManager.removeGameObject(brick, Layer.STATIC_OBJECTS)) {
             bricksCount.decrement();
+            return true;
         }
+        return false;
+    }
+
+    /**
+     * Applies the effect of the strategy, after the brick is removed. The basic strategy has no effect.
+     *
+     * @param object1 The brick that was hit.
+     * @param object2 The object that hit the brick.
+     */
+    void applyEffect(GameObject object1, GameObject object2) {
+        // No effect beyond removing the brick
     }
 }
@@ -1,49 +1,74 @@
 package bricker.brickStrategies;
 
+import bricker.utils.FlightEvents;
 import danogl.GameObject;
-import danogl.util.Counter;
 
 /**
- * A strategy that combines two collision behaviors, executing them sequentially
- * upon collision, and updates a brick counter.
+ * A strategy that combines several collision behaviors, executing them in a single pass upon collision.
+ * The nested double behaviors picked by the StrategyFactory are flattened into one array of behaviors,
+ * so a hit removes the brick once and then applies the effect of each behavior in order.
  *
  * @author fanteo12
  */
 public class DoubleBehaviorStrategy  implements DoubleBehaviorDecorator{
 
-    private final CollisionStrategy behavior1; // The first collision behavior
-    private final CollisionStrategy behavior2; // The second collision behavior
-    private final Counter bricksCount; // Counter for tracking the number of bricks
+    private final BasicCollisionStrategy[] behaviors; // The combined behaviors, in execution order
 
     /**
-     * Constructs a DoubleBehaviorStrategy with the specified brick count and collision behaviors.
+     * Constructs a DoubleBehaviorStrategy with the specified collision behaviors.
      *
-     * @param bricksCount The counter for tracking the number of bricks.
-     * @param behavior1  The first collision behavior to be executed on collision.
-     * @param behavior2  The second collision behavior to be executed on collision.
+     * @param behaviors The collision behaviors to be executed on collision, at least one.
      */
-    public DoubleBehaviorStrategy(Counter bricksCount, CollisionStrategy behavior1,
-                                  CollisionStrategy behavior2) {
-        this.behavior1 = behavior1;
-        this.behavior2 = behavior2;
-        this.bricksCount = bricksCount;
+    public DoubleBehaviorStrategy(BasicCollisionStrategy[] behaviors) {
+        this.behaviors = behaviors;
+    }
+
+    /**
+     * @return The number of behaviors combined by this strategy.
+     */
+    public int getBehaviorCount() {
+        return behaviors.length;
     }
 
     /**
      * Executes the combined collision behavior when a collision occurs between two game objects.
-     * This method first invokes the onCollision method of the first behavior, then the onCollision method
-     * of the second behavior. It also increments the brick count after the collision.
+     * The brick is removed once, then the effect of each behavior is applied in order.
+     * Emits a {@link FlightEvents.StrategyApplied} event while recording.
      *
      * @param object1 The first game object involved in the collision.
      * @param object2 The second game object involved in the collision.
      */
     @Override
     public void onCollision(GameObject object1, GameObject object2) {
-        // Execute the first behavior
-        behavior1.onCollision(object1, object2);
-
-        // Execute the second behavior
-        behavior2.onCollision(object1, object2);
+        FlightEvents.StrategyApplied event = new FlightEvents.StrategyApplied();
+        event.begin();
+        behaviors[0].removeBrick(object1);
+        for (BasicCollisionStrategy behavior : behaviors) {
+            applyBehavior(behavior, object1, object2);
+        }
+        if (event.shouldCommit()) {
+            event.strategy = getClass().getSimpleName();
+            event.depth = 0;
+            event.commit();
+        }
+    }
 
+    /**
+     * Applies the effect of one of the combined behaviors, emitting a
+     * {@link FlightEvents.StrategyApplied} event of depth 1 while recording.
+     *
+     * @param behavior The behavior to apply.
+     * @param object1  The brick that was hit.
+     * @param object2  The object that hit the brick.
+     */
+    private static void applyBehavior(BasicCollisionStrategy behavior, GameObject object1, GameObject object2) {
+        FlightEvents.StrategyApplied event = new FlightEvents.StrategyApplied();
+        event.begin();
+        behavior.applyEffect(object1, object2);
+        if (event.shouldCommit()) {
+            event.strategy = behavior.getClass().getSimpleName();
+            event.depth = 1;
+            event.commit();
+        }
     }
 }
@@ -0,0 +1,55 @@
+package bricker.brickStrategies;
+
+import bricker.gameObjects.Brick;
+import bricker.physics.BrickGrid;
+import danogl.GameObject;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * The collision strategy shared by all the bricks of a brick grid.
+ * On a hit it finds the cell of the hit brick, and resolves the actual strategy of the cell from its
+ * strategy id and position, so materialising a brick allocates no strategy, and bricks that are never hit
+ * never build theirs. The strategy is resolved again on every hit, which is once per brick, since a hit
+ * removes the brick.
+ *
+ * @author fanteo12
+ */
+public class GridCollisionStrategy implements CollisionStrategy {
+
+    private final StrategyFactory strategyFactory; // Resolves the strategy of a brick cell
+    private final BrickGrid brickGrid; // The grid the bricks are materialised from
+    private final IntUnaryOperator fieldRow; // Maps a grid row to the row that seeds the cell's strategy
+
+    /**
+     * Constructs a GridCollisionStrategy.
+     *
+     * @param strategyFactory The factory resolving the strategy of a brick cell.
+     * @param brickGrid       The grid the bricks are materialised from.
+     * @param fieldRow        Maps a row of the grid to the row of the field the strategy is resolved for.
+     */
+    public GridCollisionStrategy(StrategyFactory strategyFactory, BrickGrid brickGrid, IntUnaryOperator fieldRow) {
+        this.strategyFactory = strategyFactory;
+        this.brickGrid = brickGrid;
+        this.fieldRow = fieldRow;
+    }
+
+    /**
+     * Resolves the strategy of the hit brick's cell and invokes it. A brick that is not in the grid
+     * anymore was already removed by an earlier hit, and is ignored.
+     *
+     * @param obj1 The brick that was hit.
+     * @param obj2 The object that hit the brick.
+     */
+    @Override
+    public void onCollision(GameObject obj1, GameObject obj2) {
+        int cell = brickGrid.cellOf((Brick) obj1);
+        if (cell < 0) {
+            return;
+        }
+        int row = cell / brickGrid.getCols();
+        int col = cell - row * brickGrid.getCols();
+        strategyFactory.resolveStrategy(fieldRow.applyAsInt(row), col, brickGrid.getStrategyId(row, col))
+                .onCollision(obj1, obj2);
+    }
+}
@@ -24,15 +24,13 @@ public class PuckStrategy extends BasicCollisionStrategy {
     }
 
     /**
-     * Handles the collision between two GameObjects. Overrides the method in the superclass
-     * to include logic for creating pucks.
+     * Applies the effect of the strategy, creating pucks at the location of the brick.
      *
-     * @param object1 The first GameObject involved in the collision.
-     * @param object2 The second GameObject involved in the collision.
+     * @param object1 The brick that was hit.
+     * @param object2 The object that hit the brick.
      */
     @Override
-    public void onCollision(GameObject object1, GameObject object2) {
-        super.onCollision(object1, object2);
+    void applyEffect(GameObject object1, GameObject object2) {
         gameManager.createPucks(object1.getCenter());
     }
 }
@@ -4,12 +4,20 @@ import bricker.main.BrickerGameManager;
 import danogl.util.Counter;
 import bricker.utils.Constants;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 /**
  * Factory class for creating various collision strategies used in the Bricker game.
  * It encapsulates the logic for selecting and constructing specific strategies
  * based on input parameters and game context.
+ * The plain strategies hold no per-brick state, so the factory creates each of them once and hands the
+ * same instance to every brick. Only double behavior strategies are built per brick, as a flat list of
+ * the plain behaviors their nested selection picked.
+ * Every brick cell draws from its own generator, seeded from the factory seed and the cell position,
+ * so a strategy can be resolved lazily on the first hit of the brick and still be the strategy an eager
+ * setup would have built for the same seed, whatever order the bricks are hit in.
  *
  * @author fanteo12
  */
@@ -17,17 +25,83 @@ public class StrategyFactory {
 
     private final BrickerGameManager gameManager; // Reference to the game manager
     private final Counter bricksCount; // Counter for tracking the number of bricks
+    private final long seed; // Seeds the generator of every brick cell
+    private final StrategyWeights weights; // The distributions the strategies are picked from
+    private final BasicCollisionStrategy[] sharedStrategies; // The plain strategies, indexed by strategy id
+    private final BasicCollisionStrategy basicStrategy; // The basic strategy shared by all plain bricks
     private static final int MAX_DOUBLE_BEHAVIOR_COUNT = 3; // Maximum allowed nested double behavior strategies
 
     /**
-     * Constructs a StrategyFactory instance.
+     * Constructs a StrategyFactory instance, along with the shared instances of the plain strategies.
      *
      * @param brickerGameManager Reference to the game's main manager.
      * @param bricksCount        Counter to track the number of bricks in the game.
+     * @param seed               The seed the generators of the brick cells are derived from.
+     * @param weights            The distributions of the level the strategies are picked from.
      */
-    public StrategyFactory(BrickerGameManager brickerGameManager, Counter bricksCount) {
+    public StrategyFactory(BrickerGameManager brickerGameManager, Counter bricksCount, long seed,
+                           StrategyWeights weights) {
         this.gameManager = brickerGameManager;
         this.bricksCount = bricksCount;
+        this.seed = seed;
+        this.weights = weights;
+        this.sharedStrategies = new BasicCollisionStrategy[Constants.DOUBLE_BEHAVIOR_STRATEGY];
+        this.sharedStrategies[Constants.PUCK_STRATEGY] = new PuckStrategy(gameManager, bricksCount);
+        this.sharedStrategies[Constants.TEMP_PADDLE_STRATEGY] = new TempPaddleStrategy(gameManager, bricksCount);
+        this.sharedStrategies[Constants.TURBO_STRATEGY] = new TurboStrategy(gameManager, bricksCount);
+        this.sharedStrategies[Constants.EXTRA_LIFE_STRATEGY] = new ExtraHeartStrategy(gameManager, bricksCount);
+        this.basicStrategy = new BasicCollisionStrategy(gameManager, bricksCount);
+    }
+
+    /**
+     * Selects the strategy id of a brick cell, without building its strategy.
+     *
+     * @param row The row of the brick.
+     * @param col The column of the brick.
+     * @return One of the strategy identifiers in Constants.
+     */
+    public int selectStrategyId(int row, int col) {
+        return selectStrategyId(cellRandom(row, col));
+    }
+
+    /**
+     * Resolves the collision strategy of a brick cell. The same cell always resolves to the same
+     * strategy for the same seed and strategy id.
+     *
+     * @param row        The row of the brick.
+     * @param col        The column of the brick.
+     * @param strategyId The strategy id of the brick, as selected by {@link #selectStrategyId(int, int)}
+     *                   or read from a level file.
+     * @return The collision strategy of the brick.
+     */
+    public CollisionStrategy resolveStrategy(int row, int col, int strategyId) {
+        Random random = cellRandom(row, col);
+        // the sequence of a cell starts with the draw of its id, whether or not the id is used
+        selectStrategyId(random);
+        return buildStrategy(strategyId, Constants.STRATEGY_START_COUNTER, random);
+    }
+
+    /**
+     * Creates the generator of a brick cell, seeded from the factory seed and the cell position.
+     *
+     * @param row The row of the brick.
+     * @param col The column of the brick.
+     * @return A new generator, at the start of the sequence of the cell.
+     */
+    private Random cellRandom(int row, int col) {
+        // spread the cell position over the seed bits, so neighbouring cells get unrelated sequences
+        long cellSeed = seed ^ (((long) row << 32) | (col & 0xffffffffL)) * 0x9E3779B97F4A7C15L;
+        return new Random(cellSeed);
+    }
+
+    /**
+     * Selects a strategy id from the brick distribution of the level.
+     *
+     * @param random The generator of the brick cell.
+     * @return One of the strategy identifiers in Constants.
+     */
+    private int selectStrategyId(Random random) {
+        return weights.getBrickSampler().sample(random);
     }
 
     /**
@@ -35,51 +109,64 @@ public class StrategyFactory {
      *
      * @param index         The index representing the desired collision strategy type.
      * @param countStrategy The current count of double behavior strategies created.
-     * @return A CollisionStrategy instance based on the specified index.
+     * @param random        The generator of the brick cell, picking the behaviors of double behaviors.
+     * @return A CollisionStrategy instance based on the specified index. Plain strategies are shared,
+     *         double behavior strategies are new instances.
      */
-    public CollisionStrategy buildStrategy(int index, int countStrategy) {
+    private CollisionStrategy buildStrategy(int index, int countStrategy, Random random) {
         switch (index) {
             case Constants.PUCK_STRATEGY:
-                return new PuckStrategy(gameManager, bricksCount);
             case Constants.TEMP_PADDLE_STRATEGY:
-                return new TempPaddleStrategy(gameManager, bricksCount);
             case Constants.TURBO_STRATEGY:
-                return new TurboStrategy(gameManager, bricksCount);
             case Constants.EXTRA_LIFE_STRATEGY:
-                return new ExtraHeartStrategy(gameManager, bricksCount);
+                return sharedStrategies[index];
             case Constants.DOUBLE_BEHAVIOR_STRATEGY:
-                CollisionStrategy behavior1 = gameManager.selectNormalStrategyBehavior(bricksCount);
-                countStrategy++;
-                CollisionStrategy behavior2 = doubleBehaviourStrategy(countStrategy);
-                return new DoubleBehaviorStrategy(bricksCount, behavior1, behavior2);
+                List<BasicCollisionStrategy> behaviors = new ArrayList<>();
+                addDoubleBehaviors(countStrategy, behaviors, random);
+                return new DoubleBehaviorStrategy(behaviors.toArray(new BasicCollisionStrategy[0]));
             default:
-                return new BasicCollisionStrategy(gameManager, bricksCount);
+                return basicStrategy;
         }
     }
 
     /**
-     * Creates and returns a double behavior strategy. This method randomly selects
-     * a collision strategy and combines it with another strategy to form a nested
-     * double behavior strategy.
+     * Selects a normal behavior strategy, one of the special strategies other than double behavior,
+     * from the normal distribution of the level.
+     *
+     * @param random The generator of the brick cell.
+     * @return The shared instance of the selected strategy.
+     */
+    private BasicCollisionStrategy selectNormalStrategyBehavior(Random random) {
+        return sharedStrategies[weights.getNormalSampler().sample(random)];
+    }
+
+    /**
+     * Adds the behaviors of a double behavior strategy to a flat list. The first behavior is a normal
+     * behavior. The second behavior is selected from the nested distribution of the level, and when it is another double behavior
+     * its own behaviors are added in its place, while within the max count of nested double behaviors.
      *
      * @param countStrategy The current count of double behavior strategies created.
-     * @return A CollisionStrategy instance representing a double behavior strategy.
+     * @param behaviors     The list to add the behaviors to.
+     * @param random        The generator of the brick cell.
      */
-    public CollisionStrategy doubleBehaviourStrategy(int countStrategy) {
-        Random rand = new Random();
-        int index = rand.nextInt(Constants.DOUBLE_BEHAVIOR_STRATEGY + 1);
+    private void addDoubleBehaviors(int countStrategy, List<BasicCollisionStrategy> behaviors, Random random) {
+        behaviors.add(selectNormalStrategyBehavior(random));
+        countStrategy++;
+        int index = weights.getNestedSampler().sample(random);
 
-        // If the randomly selected index is not for a double behavior, create a standard strategy
+        // If the randomly selected index is not for a double behavior, add a standard strategy
         if (index != Constants.DOUBLE_BEHAVIOR_STRATEGY) {
-            return buildStrategy(index, countStrategy + 1);
+            behaviors.add(sharedStrategies[index]);
+            return;
         }
 
-        // If within the max count of nested double behaviors, create another double behavior
+        // If within the max count of nested double behaviors, add the behaviors of another double behavior
         if (countStrategy < MAX_DOUBLE_BEHAVIOR_COUNT) {
-            return buildStrategy(index, countStrategy + 1);
+            addDoubleBehaviors(countStrategy + 1, behaviors, random);
+            return;
         }
 
         // Fallback to a normal strategy if maximum nesting level is reached
-        return gameManager.selectNormalStrategyBehavior(bricksCount);
+        behaviors.add(selectNormalStrategyBehavior(random));
     }
 }
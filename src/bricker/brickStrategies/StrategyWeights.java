@@ -0,0 +1,152 @@
+package bricker.brickStrategies;
+
+import bricker.utils.AliasSampler;
+import bricker.utils.Constants;
+
+/**
+ * The weighted distributions the StrategyFactory picks brick strategies from, for one level.
+ * The weights of a level are read from system properties, each a comma separated list of weights indexed
+ * by the strategy identifiers in Constants:
+ * <ul>
+ *     <li>{@code bricker.level.<n>.brick} - the strategy of a brick, over all the strategies
+ *     including double behavior and basic collision.</li>
+ *     <li>{@code bricker.level.<n>.normal} - the normal behavior of a double behavior, over the
+ *     special strategies other than double behavior.</li>
+ *     <li>{@code bricker.level.<n>.nested} - the second behavior of a double behavior, over the special
+ *     strategies including double behavior.</li>
+ * </ul>
+ * A missing property falls back to the default distribution: half of the bricks are basic, and the
+ * rest, like the behaviors of double behaviors, are spread evenly.
+ *
+ * @author fanteo12
+ */
+public class StrategyWeights {
+
+    private static final String PROPERTY_PREFIX = "bricker.level.";
+    private static final double[] DEFAULT_BRICK_WEIGHTS = {1, 1, 1, 1, 1, 5};
+    private static final double[] DEFAULT_NORMAL_WEIGHTS = {1, 1, 1, 1};
+    private static final double[] DEFAULT_NESTED_WEIGHTS = {1, 1, 1, 1, 1};
+
+    private final double[] brickWeights;
+    private final double[] normalWeights;
+    private final double[] nestedWeights;
+    private final AliasSampler brickSampler; // Picks the strategy id of a brick
+    private final AliasSampler normalSampler; // Picks the normal behavior of a double behavior
+    private final AliasSampler nestedSampler; // Picks the second behavior of a double behavior
+
+    /**
+     * Constructs StrategyWeights from explicit weights.
+     *
+     * @param brickWeights  The weights of the strategy of a brick, one per strategy identifier.
+     * @param normalWeights The weights of the normal behavior of a double behavior, one per special strategy.
+     * @param nestedWeights The weights of the second behavior of a double behavior, one per special strategy
+     *                      and one for double behavior.
+     * @throws IllegalArgumentException if a list has the wrong number of weights or cannot be sampled from.
+     */
+    public StrategyWeights(double[] brickWeights, double[] normalWeights, double[] nestedWeights) {
+        this.brickWeights = brickWeights.clone();
+        this.normalWeights = normalWeights.clone();
+        this.nestedWeights = nestedWeights.clone();
+        this.brickSampler = sampler("brick", brickWeights, Constants.BASIC_COLLISION + 1);
+        this.normalSampler = sampler("normal", normalWeights, Constants.DOUBLE_BEHAVIOR_STRATEGY);
+        this.nestedSampler = sampler("nested", nestedWeights, Constants.DOUBLE_BEHAVIOR_STRATEGY + 1);
+    }
+
+    /**
+     * Reads the weights of a level from the system properties.
+     *
+     * @param level The level number.
+     * @return The weights of the level, with the default distribution for missing properties.
+     * @throws IllegalArgumentException if a property is not a valid list of weights.
+     */
+    public static StrategyWeights forLevel(int level) {
+        String prefix = PROPERTY_PREFIX + level + ".";
+        return new StrategyWeights(readWeights(prefix + "brick", DEFAULT_BRICK_WEIGHTS),
+                readWeights(prefix + "normal", DEFAULT_NORMAL_WEIGHTS),
+                readWeights(prefix + "nested", DEFAULT_NESTED_WEIGHTS));
+    }
+
+    /**
+     * @return A copy of the weights of the strategy of a brick.
+     */
+    public double[] getBrickWeights() {
+        return brickWeights.clone();
+    }
+
+    /**
+     * @return A copy of the weights of the normal behavior of a double behavior.
+     */
+    public double[] getNormalWeights() {
+        return normalWeights.clone();
+    }
+
+    /**
+     * @return A copy of the weights of the second behavior of a double behavior.
+     */
+    public double[] getNestedWeights() {
+        return nestedWeights.clone();
+    }
+
+    /**
+     * @return The sampler of the strategy id of a brick.
+     */
+    public AliasSampler getBrickSampler() {
+        return brickSampler;
+    }
+
+    /**
+     * @return The sampler of the normal behavior of a double behavior.
+     */
+    AliasSampler getNormalSampler() {
+        return normalSampler;
+    }
+
+    /**
+     * @return The sampler of the second behavior of a double behavior.
+     */
+    AliasSampler getNestedSampler() {
+        return nestedSampler;
+    }
+
+    /**
+     * Reads a comma separated list of weights from a system property.
+     *
+     * @param property     The name of the property.
+     * @param defaultValue The weights to use if the property is not set.
+     * @return The weights.
+     * @throws IllegalArgumentException if a weight is not a number.
+     */
+    private static double[] readWeights(String property, double[] defaultValue) {
+        String value = System.getProperty(property);
+        if (value == null) {
+            return defaultValue;
+        }
+        String[] parts = value.split(",");
+        double[] weights = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                weights[i] = Double.parseDouble(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid weight in " + property + ": " + parts[i], e);
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Builds the sampler of a distribution, checking it has a weight for every outcome.
+     *
+     * @param name     The name of the distribution, for error messages.
+     * @param weights  The weights of the distribution.
+     * @param outcomes The expected number of outcomes.
+     * @return The sampler of the distribution.
+     * @throws IllegalArgumentException if the number of weights is wrong or they cannot be sampled from.
+     */
+    private static AliasSampler sampler(String name, double[] weights, int outcomes) {
+        if (weights.length != outcomes) {
+            throw new IllegalArgumentException("Expected " + outcomes + " " + name + " weights, got "
+                    + weights.length);
+        }
+        return new AliasSampler(weights);
+    }
+}
@@ -25,18 +25,14 @@ public class TurboStrategy extends BasicCollisionStrategy {
     }
 
     /**
-     * Handles collision events by first invoking the base class's collision behavior
-     * and then enabling turbo mode in the game manager.
+     * Applies the effect of the strategy, enabling turbo mode in the game manager
+     * when the brick was hit by the main ball.
      *
-     * @param object1 The first game object involved in the collision.
-     * @param object2 The second game object involved in the collision.
+     * @param object1 The brick that was hit.
+     * @param object2 The object that hit the brick.
      */
     @Override
-    public void onCollision(GameObject object1, GameObject object2) {
-        // Invoke the basic collision behavior
-        super.onCollision(object1, object2);
-
-        // Enable turbo mode in the game manager
+    void applyEffect(GameObject object1, GameObject object2) {
         if (object2.getTag().equals(Constants.BALL_TAG_NAME)) {
             gameManager.setTurboOn();
         }
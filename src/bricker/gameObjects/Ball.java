@@ -1,8 +1,10 @@
 package bricker.gameObjects;
 
+import bricker.utils.EventBus;
+import bricker.utils.GameEvents;
+import bricker.utils.SoundMixer;
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.gui.Sound;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
@@ -12,13 +14,26 @@ import static bricker.utils.Constants.*;
  * Represents the ball in the Bricker game.
  * The ball moves in the game space, bounces off surfaces upon collision,
  * and plays a sound whenever a collision occurs.
+ * With an event bus set, the ball publishes a {@link GameEvents.BallLost} event when it falls below its fall
+ * limit, and a {@link GameEvents.TurboExpired} event when the collisions of its turbo run out.
  *
  * @author fanteo12
  */
 public class Ball extends GameObject {
 
-    private final Sound collisionSound; // Sound to play upon collision
+    private static final int VELOCITY_NEGATIVE_X = 1; // Flag of a velocity variant moving left
+    private static final int VELOCITY_NEGATIVE_Y = 2; // Flag of a velocity variant moving up
+    private final SoundMixer.MixedSound collisionSound; // Sound to play upon collision
     private int collisionCounter = 0;
+    private float previousTopLeftX; // The left edge of the ball before its last move
+    private float previousTopLeftY; // The top edge of the ball before its last move
+    // The current velocity with each combination of signs, indexed by VELOCITY_NEGATIVE_X/Y flags.
+    // Bounces off axis aligned surfaces pick one of them, so they allocate nothing while the speed is unchanged.
+    private final Vector2[] velocityVariants = new Vector2[4];
+    private EventBus eventBus; // Receives the events of the ball, null if they are not published
+    private float fallLimit = Float.MAX_VALUE; // The ball is lost once its center is below this line
+    private boolean belowFallLimit; // Whether the ball was below the fall limit after its last move
+    private int turboCollisionsLeft; // Collisions until the turbo ends, 0 when not in turbo
 
     /**
      * Constructs a new Ball instance.
@@ -28,9 +43,11 @@ public class Ball extends GameObject {
      * @param dimensions     Width and height of the ball in window coordinates.
      * @param renderable     The renderable representing the ball. Can be null, in which case
      *                       the ball will not be rendered.
-     * @param collisionSound The sound to play whenever the ball collides with another object.
+     * @param collisionSound The sound to play, through the sound mixer, whenever the ball collides with another
+     *                       object. Can be null, in which case the ball will be silent.
      */
-    public Ball(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable, Sound collisionSound) {
+    public Ball(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
+                SoundMixer.MixedSound collisionSound) {
         super(topLeftCorner, dimensions, renderable);
         this.collisionSound = collisionSound;
         this.setVelocity(new Vector2(BALL_SPEED,BALL_SPEED));
@@ -45,6 +62,69 @@ public class Ball extends GameObject {
         return collisionCounter;
     }
 
+    /**
+     * Resets the collision counter, so a pooled ball can be reused.
+     */
+    public void resetCollisionCounter() {
+        this.collisionCounter = 0;
+    }
+
+    /**
+     * Sets the bus the ball publishes its events on.
+     *
+     * @param eventBus  The bus, or null to stop publishing.
+     * @param fallLimit The ball is lost when its center falls below this line, in window coordinates.
+     */
+    public void setEventBus(EventBus eventBus, float fallLimit) {
+        this.eventBus = eventBus;
+        this.fallLimit = fallLimit;
+    }
+
+    /**
+     * Starts counting down the collisions of a turbo. The collision that brings the count to zero publishes
+     * a {@link GameEvents.TurboExpired} event.
+     *
+     * @param collisions The number of collisions the turbo lasts, including the one that ends it.
+     */
+    public void startTurbo(int collisions) {
+        turboCollisionsLeft = collisions;
+    }
+
+    /**
+     * Moves the ball, remembering where it was before the move for swept collision tests.
+     * Publishes a {@link GameEvents.BallLost} event when the move takes the ball below its fall limit.
+     *
+     * @param deltaTime Time elapsed since the last update, in seconds.
+     */
+    @Override
+    public void update(float deltaTime) {
+        Vector2 topLeft = getTopLeftCorner();
+        previousTopLeftX = topLeft.x();
+        previousTopLeftY = topLeft.y();
+        super.update(deltaTime);
+        if (eventBus != null) {
+            boolean below = getTopLeftCorner().y() + getDimensions().y() / 2 > fallLimit;
+            if (below && !belowFallLimit) {
+                eventBus.publish(new GameEvents.BallLost(this));
+            }
+            belowFallLimit = below;
+        }
+    }
+
+    /**
+     * @return The left edge of the ball before its last move.
+     */
+    public float getPreviousTopLeftX() {
+        return previousTopLeftX;
+    }
+
+    /**
+     * @return The top edge of the ball before its last move.
+     */
+    public float getPreviousTopLeftY() {
+        return previousTopLeftY;
+    }
+
     /**
      * Called when the ball collides with another object.
      * Plays a collision sound, increments the collision counter, and flips the ball's velocity
@@ -56,12 +136,56 @@ public class Ball extends GameObject {
     @Override
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
+        bounce(collision.getNormal());
+    }
 
+    /**
+     * Bounces the ball off a surface. Plays the collision sound, increments the collision counter
+     * and flips the ball's velocity based on the surface normal.
+     *
+     * @param normal The normal of the surface the ball hit.
+     */
+    public void bounce(Vector2 normal) {
         this.collisionCounter++;
+        if (turboCollisionsLeft > 0 && --turboCollisionsLeft == 0 && eventBus != null) {
+            eventBus.publish(new GameEvents.TurboExpired(this));
+        }
         // Play the collision sound
-        collisionSound.play();
+        if (collisionSound != null) {
+            collisionSound.play();
+        }
         // Flip the velocity based on the collision's normal vector
-        Vector2 newVelocity = getVelocity().flipped(collision.getNormal());
-        setVelocity(newVelocity);
+        Vector2 velocity = getVelocity();
+        if (normal.x() != 0 && normal.y() != 0) {
+            setVelocity(velocity.flipped(normal));
+            return;
+        }
+        int variant = velocityVariant(velocity);
+        setVelocity(velocityVariants[normal.x() != 0 ? variant ^ VELOCITY_NEGATIVE_X : variant ^ VELOCITY_NEGATIVE_Y]);
+    }
+
+    /**
+     * Finds the variant matching a velocity, rebuilding the variants if the speed on either axis changed.
+     *
+     * @param velocity The current velocity of the ball.
+     * @return The index of the variant with the signs of the velocity.
+     */
+    private int velocityVariant(Vector2 velocity) {
+        float speedX = Math.abs(velocity.x());
+        float speedY = Math.abs(velocity.y());
+        if (velocityVariants[0] == null || velocityVariants[0].x() != speedX || velocityVariants[0].y() != speedY) {
+            velocityVariants[0] = new Vector2(speedX, speedY);
+            velocityVariants[VELOCITY_NEGATIVE_X] = new Vector2(-speedX, speedY);
+            velocityVariants[VELOCITY_NEGATIVE_Y] = new Vector2(speedX, -speedY);
+            velocityVariants[VELOCITY_NEGATIVE_X | VELOCITY_NEGATIVE_Y] = new Vector2(-speedX, -speedY);
+        }
+        int variant = 0;
+        if (velocity.x() < 0) {
+            variant |= VELOCITY_NEGATIVE_X;
+        }
+        if (velocity.y() < 0) {
+            variant |= VELOCITY_NEGATIVE_Y;
+        }
+        return variant;
     }
 }
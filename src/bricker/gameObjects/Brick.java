@@ -1,6 +1,7 @@
 package bricker.gameObjects;
 
 import bricker.brickStrategies.CollisionStrategy;
+import bricker.utils.FlightEvents;
 import danogl.GameObject;
 import danogl.collisions.Collision;
 import danogl.gui.rendering.Renderable;
@@ -45,6 +46,24 @@ public class Brick extends GameObject {
     @Override
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
+        hit(other);
+    }
+
+    /**
+     * Invokes the collision strategy of the brick. Used for collisions found by the brick grid,
+     * which are not reported by danogl. Emits a {@link FlightEvents.BrickCollision} event while recording.
+     *
+     * @param other The game object that hit the brick.
+     */
+    public void hit(GameObject other) {
+        FlightEvents.BrickCollision event = new FlightEvents.BrickCollision();
+        event.begin();
         this.collisionStrategy.onCollision(this, other);
+        if (event.shouldCommit()) {
+            event.brickX = getTopLeftCorner().x();
+            event.brickY = getTopLeftCorner().y();
+            event.hitBy = other.getTag();
+            event.commit();
+        }
     }
 }
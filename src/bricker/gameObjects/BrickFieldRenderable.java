@@ -0,0 +1,165 @@
+package bricker.gameObjects;
+
+import bricker.main.TextureAtlas;
+import bricker.physics.BrickGrid;
+import danogl.gui.rendering.ImageRenderable;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Draws the live cells of a brick grid with the brick image.
+ * Bricks are only materialised as game objects near the balls, and materialised bricks have no renderable
+ * of their own, so the whole brick field is drawn by this renderable.
+ * The field is drawn once into an off-screen image covering the view, and each frame draws that single
+ * image, so the cost of a frame depends on the size of the view rather than on the number of bricks.
+ * The image is kept up to date through the grid's cell listener: a removed brick clears its own rectangle,
+ * and placed or moved bricks redraw the whole image on the next frame.
+ * The renderable is drawn in window coordinates, whatever the position of the object it is attached to.
+ *
+ * @author fanteo12
+ */
+public class BrickFieldRenderable implements Renderable, BrickGrid.CellListener {
+
+    private static final int INITIAL_REMOVED_CELLS = 16; // Initial capacity of the removed cells queue
+
+    private final BrickGrid grid;
+    private final Renderable brickImage; // Null when bricks are not rendered
+    private final Vector2 brickSize;
+    private final int viewWidth;
+    private final int viewHeight;
+    private BufferedImage cache; // The drawn field, created on the first frame
+    private boolean redrawAll = true; // Whether the whole cache must be drawn again
+    private int[] removedCells = new int[INITIAL_REMOVED_CELLS]; // Cells to clear from the cache
+    private int removedCount; // Number of queued removed cells
+
+    /**
+     * Constructs a BrickFieldRenderable, and registers it as the cell listener of the grid.
+     *
+     * @param grid       The grid whose live cells are drawn.
+     * @param brickImage The image of a brick, or null if bricks are not rendered.
+     * @param viewSize   The size of the view, from the window's top left corner, that bricks are drawn in.
+     */
+    public BrickFieldRenderable(BrickGrid grid, Renderable brickImage, Vector2 viewSize) {
+        this.grid = grid;
+        this.brickImage = brickImage;
+        this.brickSize = new Vector2(grid.getBrickWidth(), grid.getBrickHeight());
+        this.viewWidth = Math.max(1, Math.round(viewSize.x()));
+        this.viewHeight = Math.max(1, Math.round(viewSize.y()));
+        grid.setCellListener(this);
+    }
+
+    /**
+     * Queues the rectangle of a removed brick to be cleared from the cache on the next frame.
+     *
+     * @param cell The row major index of the cell.
+     */
+    @Override
+    public void cellRemoved(int cell) {
+        if (redrawAll) {
+            return;
+        }
+        if (removedCount == removedCells.length) {
+            removedCells = Arrays.copyOf(removedCells, removedCount * 2);
+        }
+        removedCells[removedCount++] = cell;
+    }
+
+    /**
+     * Marks the whole cache to be drawn again on the next frame.
+     */
+    @Override
+    public void cellsChanged() {
+        redrawAll = true;
+        removedCount = 0;
+    }
+
+    /**
+     * Brings the cached field up to date and draws it.
+     *
+     * @param g                       The graphics context to draw on.
+     * @param topLeftCorner           Ignored, cells are drawn at their window coordinates.
+     * @param dimensions              Ignored, cells are drawn with the brick size of the grid.
+     * @param degreesCounterClockwise Ignored, bricks are not rotated.
+     * @param isFlippedHorizontally   Ignored, bricks are not flipped.
+     * @param isFlippedVertically     Ignored, bricks are not flipped.
+     * @param opaqueness              The opacity of bricks drawn by a renderable that is not an image.
+     */
+    @Override
+    public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions, double degreesCounterClockwise,
+                       boolean isFlippedHorizontally, boolean isFlippedVertically, double opaqueness) {
+        if (brickImage == null) {
+            return;
+        }
+        if (cache == null) {
+            cache = g.getDeviceConfiguration().createCompatibleImage(viewWidth, viewHeight, Transparency.TRANSLUCENT);
+            redrawAll = true;
+        }
+        if (redrawAll) {
+            redrawCache(opaqueness);
+        } else if (removedCount > 0) {
+            clearRemovedCells();
+        }
+        g.drawImage(cache, 0, 0, null);
+    }
+
+    /**
+     * Clears the cache and draws every live cell inside the view into it.
+     *
+     * @param opaqueness The opacity of bricks drawn by a renderable that is not an image.
+     */
+    private void redrawCache(double opaqueness) {
+        Graphics2D cacheGraphics = cache.createGraphics();
+        try {
+            cacheGraphics.setComposite(AlphaComposite.Clear);
+            cacheGraphics.fillRect(0, 0, viewWidth, viewHeight);
+            cacheGraphics.setComposite(AlphaComposite.SrcOver);
+            int width = Math.round(grid.getBrickWidth());
+            int height = Math.round(grid.getBrickHeight());
+            for (int cell = grid.nextAlive(0); cell >= 0; cell = grid.nextAlive(cell + 1)) {
+                int x = Math.round(grid.cellLeft(cell));
+                int y = Math.round(grid.cellTop(cell));
+                if (x >= viewWidth || y >= viewHeight || x + width <= 0 || y + height <= 0) {
+                    continue;
+                }
+                // draw atlas sprites and images directly, without a position vector per brick
+                if (brickImage instanceof TextureAtlas.Region) {
+                    ((TextureAtlas.Region) brickImage).draw(cacheGraphics, x, y, width, height);
+                } else if (brickImage instanceof ImageRenderable) {
+                    cacheGraphics.drawImage(((ImageRenderable) brickImage).getImage(), x, y, width, height, null);
+                } else {
+                    brickImage.render(cacheGraphics, new Vector2(x, y), brickSize, 0, false, false, opaqueness);
+                }
+            }
+        } finally {
+            cacheGraphics.dispose();
+        }
+        redrawAll = false;
+        removedCount = 0;
+    }
+
+    /**
+     * Clears the rectangles of the removed bricks from the cache. Bricks do not overlap, so clearing a
+     * rectangle leaves the other bricks intact.
+     */
+    private void clearRemovedCells() {
+        Graphics2D cacheGraphics = cache.createGraphics();
+        try {
+            cacheGraphics.setComposite(AlphaComposite.Clear);
+            int width = Math.round(grid.getBrickWidth());
+            int height = Math.round(grid.getBrickHeight());
+            for (int i = 0; i < removedCount; i++) {
+                cacheGraphics.fillRect(Math.round(grid.cellLeft(removedCells[i])),
+                        Math.round(grid.cellTop(removedCells[i])), width, height);
+            }
+        } finally {
+            cacheGraphics.dispose();
+        }
+        removedCount = 0;
+    }
+}
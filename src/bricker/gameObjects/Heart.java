@@ -1,5 +1,7 @@
 package bricker.gameObjects;
 
+import bricker.utils.EventBus;
+import bricker.utils.GameEvents;
 import danogl.GameObject;
 import danogl.collisions.Collision;
 import danogl.gui.rendering.Renderable;
@@ -18,6 +20,7 @@ import static bricker.utils.Constants.PADDLE_TAG_NAME;
 public class Heart extends GameObject{
 
     private Boolean isHeartTaken = false;
+    private final EventBus eventBus; // Receives the HeartCaught event, null if it is not published
 
     /**
      * Construct a new GameObject instance.
@@ -29,7 +32,22 @@ public class Heart extends GameObject{
      *                      the GameObject will not be rendered.
      */
     public Heart(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
+        this(topLeftCorner, dimensions, renderable, null);
+    }
+
+    /**
+     * Construct a new heart that publishes a {@link GameEvents.HeartCaught} event when it is taken.
+     *
+     * @param topLeftCorner Position of the object, in window coordinates (pixels).
+     *                      Note that (0,0) is the top-left corner of the window.
+     * @param dimensions    Width and height in window coordinates.
+     * @param renderable    The renderable representing the object. Can be null, in which case
+     *                      the GameObject will not be rendered.
+     * @param eventBus      The bus to publish the event on, or null to only mark the heart as taken.
+     */
+    public Heart(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable, EventBus eventBus) {
         super(topLeftCorner, dimensions, renderable);
+        this.eventBus = eventBus;
     }
 
     /**
@@ -46,7 +64,7 @@ public class Heart extends GameObject{
 
     /**
      * Handles the behavior when the heart collides with another GameObject.
-     * Marks the heart as taken when a collision occurs.
+     * Marks the heart as taken when a collision occurs, and publishes the catch the first time.
      *
      * @param other     the other GameObject involved in the collision.
      * @param collision the Collision object representing the collision details.
@@ -54,9 +72,19 @@ public class Heart extends GameObject{
     @Override
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
+        if (!isHeartTaken && eventBus != null) {
+            eventBus.publish(new GameEvents.HeartCaught(this));
+        }
         isHeartTaken = true;
     }
 
+    /**
+     * Marks the heart as not taken, so a pooled heart can be reused.
+     */
+    public void reset() {
+        isHeartTaken = false;
+    }
+
     /**
      * Gets the status of whether the heart is taken.
      *
@@ -1,7 +1,7 @@
 package bricker.gameObjects;
 
+import bricker.utils.InputSource;
 import danogl.GameObject;
-import danogl.gui.UserInputListener;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
@@ -17,8 +17,11 @@ import java.awt.event.KeyEvent;
 public class Paddle extends GameObject {
 
     private static final float MOVEMENT_SPEED = 35; // Speed at which the paddle moves
+    // Velocities for each input, built once so the steady-state update allocates nothing
+    private static final Vector2 LEFT_VELOCITY = Vector2.LEFT.mult(MOVEMENT_SPEED * MOVEMENT_SPEED);
+    private static final Vector2 RIGHT_VELOCITY = Vector2.RIGHT.mult(MOVEMENT_SPEED * MOVEMENT_SPEED);
     private final float rightLimit; // Right boundary for paddle movement
-    private final UserInputListener inputListener; // Listener for user input
+    private final InputSource inputSource; // Source of the key state
 
     /**
      * Constructs a new Paddle instance.
@@ -28,14 +31,14 @@ public class Paddle extends GameObject {
      * @param dimensions     Width and height of the paddle in window coordinates.
      * @param renderable     The renderable representing the paddle. Can be null, in which case
      *                       the paddle will not be rendered.
-     * @param inputListener  A listener for handling user keyboard input.
+     * @param inputSource  The key state used to move the paddle.
      * @param windowWidth    The width of the game window, used to determine movement boundaries.
      */
     public Paddle(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
-                  UserInputListener inputListener, float windowWidth) {
+                  InputSource inputSource, float windowWidth) {
         super(topLeftCorner, dimensions, renderable);
         this.rightLimit = windowWidth;
-        this.inputListener = inputListener;
+        this.inputSource = inputSource;
     }
 
     /**
@@ -47,28 +50,29 @@ public class Paddle extends GameObject {
     public void update(float deltaTime) {
         super.update(deltaTime);
 
-        // Default movement direction (stationary)
-        Vector2 movementDir = Vector2.ZERO;
-
-        // Handle user input for left and right movement
-        if (inputListener.isKeyPressed(KeyEvent.VK_LEFT)) {
-            movementDir = movementDir.add(Vector2.LEFT.mult(MOVEMENT_SPEED));
-        }
-        if (inputListener.isKeyPressed(KeyEvent.VK_RIGHT)) {
-            movementDir = movementDir.add(Vector2.RIGHT.mult(MOVEMENT_SPEED));
+        // Handle user input for left and right movement, pressing both keys cancels out
+        boolean left = inputSource.isKeyPressed(KeyEvent.VK_LEFT);
+        boolean right = inputSource.isKeyPressed(KeyEvent.VK_RIGHT);
+        Vector2 velocity = Vector2.ZERO;
+        if (left && !right) {
+            velocity = LEFT_VELOCITY;
+        } else if (right && !left) {
+            velocity = RIGHT_VELOCITY;
         }
 
-        // Set paddle velocity based on calculated movement direction
-        setVelocity(movementDir.mult(MOVEMENT_SPEED));
+        // Set paddle velocity, skipping the call when the paddle already has the cached velocity
+        if (getVelocity() != velocity) {
+            setVelocity(velocity);
+        }
 
         // Ensure the paddle remains within the left boundary
         if (this.getTopLeftCorner().x() < 0) {
-            this.setTopLeftCorner(new Vector2(0, this.getTopLeftCorner().y()));
+            this.transform().setTopLeftCornerX(0);
         }
 
         // Ensure the paddle remains within the right boundary
         if (this.getTopLeftCorner().x() + this.getDimensions().x() > rightLimit) {
-            this.setTopLeftCorner(new Vector2(rightLimit - this.getDimensions().x(), this.getTopLeftCorner().y()));
+            this.transform().setTopLeftCornerX(rightLimit - this.getDimensions().x());
         }
     }
 }
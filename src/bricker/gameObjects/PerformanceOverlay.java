@@ -0,0 +1,158 @@
+package bricker.gameObjects;
+
+import bricker.utils.LatencyHistogram;
+import com.sun.management.ThreadMXBean;
+import danogl.GameObject;
+import danogl.gui.rendering.TextRenderable;
+import danogl.util.Vector2;
+
+import java.awt.Color;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A heads-up display of the game's performance: frames per second, the 99th percentile frame time, the live
+ * objects by kind, brick hits per second and the allocation rate of the game thread.
+ * The statistics are gathered over a short window and shown when it ends. Each line keeps the values it
+ * shows, and its text is only formatted and set again when one of them changes, so a steady game does not
+ * rebuild any text. The lines are game objects, to be added to the UI layer while the overlay is shown.
+ *
+ * @author fanteo12
+ */
+public class PerformanceOverlay {
+
+    private static final float REFRESH_INTERVAL = 0.5f; // Seconds between refreshes of the shown values
+    private static final float LINE_HEIGHT = 18;
+    private static final float LINE_WIDTH = 260;
+    private static final float MICROS_IN_SECOND = 1e6f;
+    private static final long MICROS_IN_TENTH_MILLI = 100;
+    private static final long BYTES_IN_KB = 1024;
+    private static final long UNKNOWN = -1; // Allocation rate when the JVM cannot measure allocations
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Line indices and their formats
+    private static final int FPS_LINE = 0;
+    private static final int FRAME_TIME_LINE = 1;
+    private static final int OBJECTS_LINE = 2;
+    private static final int BRICKS_LINE = 3;
+    private static final int HITS_LINE = 4;
+    private static final int ALLOCATION_LINE = 5;
+    private static final String[] LINE_FORMATS = {
+            "FPS %d",
+            "frame p99 %d.%d ms",
+            "pucks %d  hearts %d  paddles %d",
+            "bricks %d  materialised %d",
+            "brick hits %d/s",
+            "alloc %d KB/s"};
+    private static final String UNKNOWN_ALLOCATION_TEXT = "alloc n/a";
+
+    private final List<GameObject> lines = new ArrayList<>(LINE_FORMATS.length);
+    private final TextRenderable[] texts = new TextRenderable[LINE_FORMATS.length];
+    private final long[][] shownValues = new long[LINE_FORMATS.length][]; // The values of each line's text
+    private final LatencyHistogram frameTimes = new LatencyHistogram(); // Frame times of the window, in us
+    private float windowTime; // Seconds since the start of the window
+    private int windowFrames; // Frames since the start of the window
+    private long windowStartHits; // Brick hits before the window
+    private long windowStartBytes; // Bytes allocated by the game thread before the window
+
+    /**
+     * Constructs a PerformanceOverlay instance. Its lines start empty and are filled on the first refresh.
+     *
+     * @param topRightCorner The top right corner of the overlay, in window coordinates.
+     */
+    public PerformanceOverlay(Vector2 topRightCorner) {
+        Vector2 lineSize = new Vector2(LINE_WIDTH, LINE_HEIGHT);
+        for (int i = 0; i < LINE_FORMATS.length; i++) {
+            texts[i] = new TextRenderable("");
+            texts[i].setColor(Color.WHITE);
+            Vector2 lineTopLeft = new Vector2(topRightCorner.x() - LINE_WIDTH, topRightCorner.y() + i * LINE_HEIGHT);
+            lines.add(new GameObject(lineTopLeft, lineSize, texts[i]));
+        }
+        windowStartBytes = allocatedBytes();
+    }
+
+    /**
+     * @return The line objects of the overlay, to add to the UI layer while it is shown.
+     */
+    public List<GameObject> getLines() {
+        return lines;
+    }
+
+    /**
+     * Records the time of a frame.
+     *
+     * @param deltaTime Time elapsed since the last frame (in seconds).
+     * @return true if the window is over and {@link #refresh} should be called.
+     */
+    public boolean recordFrame(float deltaTime) {
+        frameTimes.record(Math.round(deltaTime * MICROS_IN_SECOND));
+        windowTime += deltaTime;
+        windowFrames++;
+        return windowTime >= REFRESH_INTERVAL;
+    }
+
+    /**
+     * Shows the statistics of the window that ended, and starts a new window.
+     *
+     * @param pucks              Number of live pucks.
+     * @param hearts             Number of falling hearts.
+     * @param tempPaddles        Number of temporary paddles.
+     * @param bricks             Number of live bricks.
+     * @param materializedBricks Number of bricks materialised as game objects.
+     * @param brickHits          Total number of brick hits since the game started.
+     */
+    public void refresh(int pucks, int hearts, int tempPaddles, int bricks, int materializedBricks,
+                        long brickHits) {
+        long bytes = allocatedBytes();
+        long p99Micros = frameTimes.getValueAtPercentile(99);
+        long p99Tenths = (p99Micros + MICROS_IN_TENTH_MILLI / 2) / MICROS_IN_TENTH_MILLI;
+
+        show(FPS_LINE, Math.round(windowFrames / windowTime));
+        show(FRAME_TIME_LINE, p99Tenths / 10, p99Tenths % 10);
+        show(OBJECTS_LINE, pucks, hearts, tempPaddles);
+        show(BRICKS_LINE, bricks, materializedBricks);
+        show(HITS_LINE, Math.round((brickHits - windowStartHits) / windowTime));
+        show(ALLOCATION_LINE, bytes == UNKNOWN ? UNKNOWN
+                : Math.round((bytes - windowStartBytes) / BYTES_IN_KB / windowTime));
+
+        frameTimes.reset();
+        windowTime = 0;
+        windowFrames = 0;
+        windowStartHits = brickHits;
+        windowStartBytes = bytes;
+    }
+
+    /**
+     * Sets the text of a line, unless it already shows the same values.
+     *
+     * @param line   The index of the line.
+     * @param values The values of the line's format.
+     */
+    private void show(int line, long... values) {
+        if (Arrays.equals(shownValues[line], values)) {
+            return;
+        }
+        shownValues[line] = values;
+        if (line == ALLOCATION_LINE && values[0] == UNKNOWN) {
+            texts[line].setString(UNKNOWN_ALLOCATION_TEXT);
+            return;
+        }
+        Object[] arguments = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            arguments[i] = values[i];
+        }
+        texts[line].setString(String.format(LINE_FORMATS[line], arguments));
+    }
+
+    /**
+     * Reads the bytes allocated by the current thread so far.
+     *
+     * @return The allocated bytes, or UNKNOWN if the JVM does not measure them.
+     */
+    private static long allocatedBytes() {
+        return THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled()
+                ? THREADS.getCurrentThreadAllocatedBytes() : UNKNOWN;
+    }
+}
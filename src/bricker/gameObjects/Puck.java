@@ -1,6 +1,6 @@
 package bricker.gameObjects;
 
-import danogl.gui.Sound;
+import bricker.utils.SoundMixer;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
@@ -20,9 +20,10 @@ public class Puck extends Ball {
      * @param topLeftCorner  the Vector2 representing the top-left corner position of the puck.
      * @param dimensions     the Vector2 representing the dimensions of the puck.
      * @param renderable     the Renderable object for rendering the puck.
-     * @param collisionSound the Sound object for playing collision sounds.
+     * @param collisionSound the sound played through the sound mixer on collisions.
      */
-    public Puck(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable, Sound collisionSound) {
+    public Puck(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
+                SoundMixer.MixedSound collisionSound) {
         super(topLeftCorner, dimensions, renderable,collisionSound);
     }
 }
@@ -1,8 +1,10 @@
 package bricker.gameObjects;
 
+import bricker.utils.EventBus;
+import bricker.utils.GameEvents;
+import bricker.utils.InputSource;
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.gui.UserInputListener;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Counter;
 import danogl.util.Vector2;
@@ -20,6 +22,7 @@ import static bricker.utils.Constants.PUCK_TAG_NAME;
 public class TempPaddle extends Paddle {
 
     private final Counter paddleCollisionCounter;
+    private final EventBus eventBus; // Receives the PaddleExpired event
 
     /**
      * Constructs a new Paddle instance.
@@ -29,13 +32,17 @@ public class TempPaddle extends Paddle {
      * @param dimensions     Width and height of the paddle in window coordinates.
      * @param renderable     The renderable representing the paddle. Can be null, in which case
      *                       the paddle will not be rendered.
-     * @param inputListener  A listener for handling user keyboard input.
+     * @param inputSource  The key state used to move the paddle.
      * @param windowWidth    The width of the game window, used to determine movement boundaries.
+     * @param tempPaddleCollisionCounter The collisions left before the paddle's work ends.
+     * @param eventBus       The bus to publish a {@link GameEvents.PaddleExpired} event on when the work ends.
      */
     public TempPaddle(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
-                  UserInputListener inputListener, float windowWidth,Counter tempPaddleCollisionCounter) {
-        super(topLeftCorner,dimensions,renderable,inputListener,windowWidth);
+                  InputSource inputSource, float windowWidth,Counter tempPaddleCollisionCounter,
+                      EventBus eventBus) {
+        super(topLeftCorner,dimensions,renderable,inputSource,windowWidth);
         this.paddleCollisionCounter = tempPaddleCollisionCounter;
+        this.eventBus = eventBus;
     }
 
     /**
@@ -61,7 +68,30 @@ public class TempPaddle extends Paddle {
     @Override
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
-        paddleCollisionCounter.decrement();
+        countCollision();
+    }
+
+    /**
+     * Counts a collision with a ball or a puck. Used directly for pucks of the multiball system,
+     * which are not game objects. The counter does not go below zero, and the collision that brings it to
+     * zero publishes a {@link GameEvents.PaddleExpired} event.
+     */
+    public void countCollision() {
+        if (paddleCollisionCounter.value() > 0) {
+            paddleCollisionCounter.decrement();
+            if (paddleCollisionCounter.value() == 0) {
+                eventBus.publish(new GameEvents.PaddleExpired(this));
+            }
+        }
+    }
+
+    /**
+     * Sets the number of collisions left before the paddle's work ends, so a pooled paddle can be reused.
+     *
+     * @param collisions The number of collisions the paddle takes before its work ends.
+     */
+    public void reset(int collisions) {
+        paddleCollisionCounter.increaseBy(collisions - paddleCollisionCounter.value());
     }
 
     /**
@@ -0,0 +1,108 @@
+package bricker.level;
+
+/**
+ * Tracks the chunks of an endless brick field that are live in the brick grid.
+ * The endless field is an unbounded sequence of chunks, each a band of rows of bricks. The grid holds a
+ * window of consecutive chunks, one per band: the bottom band, nearest to the paddle, holds the lowest
+ * chunk, and each band above it holds the next one. Once the bottom chunk is cleared, the window advances:
+ * the bands move down, the cleared chunk is dropped and the next chunk is loaded into the top band.
+ * The window counts the bricks left in each band, so it knows when the bottom chunk is cleared.
+ *
+ * @author fanteo12
+ */
+public class ChunkWindow {
+
+    private final int chunkRows; // The number of rows of a chunk
+    private final int[] bandBricks; // The bricks left in each band, the top band first
+    private long bottomChunk; // The index of the chunk in the bottom band
+
+    /**
+     * Constructs a ChunkWindow holding the first chunks of the field.
+     *
+     * @param bands     The number of chunks live at once.
+     * @param chunkRows The number of rows of a chunk.
+     */
+    public ChunkWindow(int bands, int chunkRows) {
+        this.chunkRows = chunkRows;
+        this.bandBricks = new int[bands];
+    }
+
+    /**
+     * @return The number of chunks live at once.
+     */
+    public int getBands() {
+        return bandBricks.length;
+    }
+
+    /**
+     * @return The number of rows of a chunk.
+     */
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    /**
+     * Finds the chunk held by a band.
+     *
+     * @param band The band, 0 being the top band.
+     * @return The index of the chunk in the band.
+     */
+    public long chunkOfBand(int band) {
+        return bottomChunk + bandBricks.length - 1 - band;
+    }
+
+    /**
+     * Finds the row of the field shown in a row of the grid. Field rows identify cells across the whole
+     * field, so a cell keeps its row, and its strategy, whichever band it is shown in.
+     *
+     * @param gridRow The row of the grid.
+     * @return The row of the field.
+     */
+    public long fieldRow(int gridRow) {
+        int band = gridRow / chunkRows;
+        return chunkOfBand(band) * chunkRows + gridRow % chunkRows;
+    }
+
+    /**
+     * Records the number of bricks loaded into a band.
+     *
+     * @param band   The band, 0 being the top band.
+     * @param bricks The number of bricks in the band.
+     */
+    public void setBandBricks(int band, int bricks) {
+        bandBricks[band] = bricks;
+    }
+
+    /**
+     * Records the removal of a brick.
+     *
+     * @param gridRow The row of the grid the brick was in.
+     */
+    public void brickRemoved(int gridRow) {
+        bandBricks[gridRow / chunkRows]--;
+    }
+
+    /**
+     * @return true if the chunk in the bottom band has no bricks left.
+     */
+    public boolean isBottomChunkCleared() {
+        return bandBricks[bandBricks.length - 1] <= 0;
+    }
+
+    /**
+     * Advances the window by one chunk: the bands move down and the top band becomes empty, ready for
+     * the next chunk to be loaded into it.
+     */
+    public void advance() {
+        System.arraycopy(bandBricks, 0, bandBricks, 1, bandBricks.length - 1);
+        bandBricks[0] = 0;
+        bottomChunk++;
+    }
+
+    /**
+     * @return The number of chunks cleared so far.
+     */
+    public long getClearedChunks() {
+        return bottomChunk;
+    }
+}
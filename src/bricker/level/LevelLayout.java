@@ -0,0 +1,334 @@
+package bricker.level;
+
+import bricker.brickStrategies.StrategyWeights;
+import bricker.utils.Constants;
+import danogl.util.Vector2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+/**
+ * A brick layout stored in a compact binary level file.
+ * A level file starts with a fixed size header: the magic number, the format version, the number of rows
+ * and columns, the number of bricks, and the grid geometry, which is the top left corner of the first
+ * brick, the brick width and height and the padding between bricks. One byte per cell follows, row by
+ * row, holding the strategy identifier of the cell's brick from Constants, up to
+ * {@link Constants#BASIC_COLLISION}, or {@link #EMPTY} for a cell with no brick. Brick positions and sizes follow from the geometry, so a cell costs a single byte.
+ * Levels are loaded by memory mapping the file and the cells are read straight from the mapping. Loading
+ * only scans the cells once, to check their strategy identifiers and the number of bricks in the header
+ * against them.
+ *
+ * @author fanteo12
+ */
+public final class LevelLayout {
+
+    /**
+     * The strategy identifier of a cell with no brick.
+     */
+    public static final int EMPTY = 0xFF;
+
+    private static final int MAGIC = 0x42524B4C; // "BRKL"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + Integer.BYTES * 3 + Float.BYTES * 5;
+    // The geometry of generated levels, matching the default layout of BrickerGameManager
+    private static final float DEFAULT_BORDER = 15;
+    private static final float DEFAULT_BRICK_HEIGHT = 15;
+    private static final float DEFAULT_PADDING = 5;
+
+    private final int rows;
+    private final int cols;
+    private final int brickCount;
+    private final Vector2 origin; // The top left corner of the brick at row 0 and column 0
+    private final float brickWidth;
+    private final float brickHeight;
+    private final float padding;
+    private final ByteBuffer cells; // Row major, one strategy identifier per cell
+    private final Path path; // The absolute path of the level file
+    private final ByteBuffer contents; // The whole level file, header included
+
+    /**
+     * Constructs a LevelLayout from the contents of a level file.
+     *
+     * @param path        The absolute path of the level file.
+     * @param contents    The whole level file, header included.
+     * @param rows        Number of rows of cells.
+     * @param cols        Number of cells in each row.
+     * @param brickCount  Number of cells holding a brick.
+     * @param origin      The top left corner of the brick at row 0 and column 0.
+     * @param brickWidth  The width of a brick.
+     * @param brickHeight The height of a brick.
+     * @param padding     The gap between adjacent bricks, both horizontally and vertically.
+     * @param cells       The strategy identifier of each cell, row major, starting at position 0.
+     */
+    private LevelLayout(Path path, ByteBuffer contents, int rows, int cols, int brickCount, Vector2 origin,
+                        float brickWidth, float brickHeight, float padding, ByteBuffer cells) {
+        this.path = path;
+        this.contents = contents;
+        this.rows = rows;
+        this.cols = cols;
+        this.brickCount = brickCount;
+        this.origin = origin;
+        this.brickWidth = brickWidth;
+        this.brickHeight = brickHeight;
+        this.padding = padding;
+        this.cells = cells;
+    }
+
+    /**
+     * Loads a level file by memory mapping it. The cells are read from the mapping when they are needed.
+     * The file is rejected if a cell holds an unknown strategy identifier, if its brick count does not match
+     * its cells, if its brick size is not a positive number or if its padding is negative.
+     *
+     * @param path The level file.
+     * @return The layout of the level.
+     * @throws IOException if the file cannot be read or is not a valid level file.
+     */
+    public static LevelLayout load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Not a level file: " + path);
+            }
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a level file: " + path);
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported level file version " + version + ": " + path);
+            }
+            int rows = buffer.getInt();
+            int cols = buffer.getInt();
+            int brickCount = buffer.getInt();
+            Vector2 origin = new Vector2(buffer.getFloat(), buffer.getFloat());
+            float brickWidth = buffer.getFloat();
+            float brickHeight = buffer.getFloat();
+            float padding = buffer.getFloat();
+            if (rows <= 0 || cols <= 0 || (long) rows * cols != fileSize - HEADER_SIZE) {
+                throw new IOException("Level file " + path + " does not hold " + rows + "x" + cols + " cells");
+            }
+            if (!isPositive(brickWidth) || !isPositive(brickHeight) || !isNonNegative(padding)) {
+                throw new IOException("Level file " + path + " has an invalid brick size " + brickWidth + "x"
+                        + brickHeight + " or padding " + padding);
+            }
+            ByteBuffer cells = buffer.slice();
+            int cellBricks = countBricks(path, cells);
+            if (cellBricks != brickCount) {
+                throw new IOException("Level file " + path + " declares " + brickCount + " bricks but holds "
+                        + cellBricks);
+            }
+            return new LevelLayout(path.toAbsolutePath(), buffer.duplicate().rewind(), rows, cols, brickCount,
+                    origin, brickWidth, brickHeight, padding, cells);
+        }
+    }
+
+    /**
+     * Checks that a value of the grid geometry is a positive number.
+     *
+     * @param value The value to check.
+     * @return true if the value is finite and greater than 0.
+     */
+    private static boolean isPositive(float value) {
+        return value > 0 && Float.isFinite(value);
+    }
+
+    /**
+     * Checks that a value of the grid geometry is a number that is not negative.
+     *
+     * @param value The value to check.
+     * @return true if the value is finite and at least 0.
+     */
+    private static boolean isNonNegative(float value) {
+        return value >= 0 && Float.isFinite(value);
+    }
+
+    /**
+     * Checks whether a cell value is a known strategy identifier or {@link #EMPTY}.
+     *
+     * @param cell The value of the cell, as an unsigned byte.
+     * @return true if the cell is empty or holds a strategy from Constants.
+     */
+    private static boolean isKnownCell(int cell) {
+        return cell == EMPTY || cell <= Constants.BASIC_COLLISION;
+    }
+
+    /**
+     * Counts the cells that hold a brick, checking that every cell is known.
+     *
+     * @param path  The level file, for error messages.
+     * @param cells The strategy identifier of each cell, from position 0 to the limit.
+     * @return The number of cells that are not {@link #EMPTY}.
+     * @throws IOException if a cell holds an unknown strategy identifier.
+     */
+    private static int countBricks(Path path, ByteBuffer cells) throws IOException {
+        int count = 0;
+        for (int i = 0; i < cells.limit(); i++) {
+            int cell = cells.get(i) & 0xFF;
+            if (!isKnownCell(cell)) {
+                throw new IOException("Level file " + path + " has an unknown strategy " + cell + " in cell " + i);
+            }
+            if (cell != EMPTY) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes a level file.
+     *
+     * @param path        The file to write, replaced if it exists.
+     * @param rows        Number of rows of cells.
+     * @param cols        Number of cells in each row.
+     * @param origin      The top left corner of the brick at row 0 and column 0.
+     * @param brickWidth  The width of a brick.
+     * @param brickHeight The height of a brick.
+     * @param padding     The gap between adjacent bricks, both horizontally and vertically.
+     * @param cells       The strategy identifier of each cell, row major, or {@link #EMPTY}.
+     * @throws IOException if the file cannot be written.
+     * @throws IllegalArgumentException if the number of cells does not match the rows and columns, or a cell
+     *                                  holds an unknown strategy identifier.
+     */
+    public static void write(Path path, int rows, int cols, Vector2 origin, float brickWidth, float brickHeight,
+                             float padding, byte[] cells) throws IOException {
+        if ((long) rows * cols != cells.length) {
+            throw new IllegalArgumentException("Expected " + rows + "x" + cols + " cells, got " + cells.length);
+        }
+        int brickCount = 0;
+        for (byte cell : cells) {
+            if (!isKnownCell(cell & 0xFF)) {
+                throw new IllegalArgumentException("Unknown strategy " + (cell & 0xFF) + " in a cell");
+            }
+            if ((cell & 0xFF) != EMPTY) {
+                brickCount++;
+            }
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putShort(VERSION).putInt(rows).putInt(cols).putInt(brickCount)
+                .putFloat(origin.x()).putFloat(origin.y()).putFloat(brickWidth).putFloat(brickHeight)
+                .putFloat(padding).flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer body = ByteBuffer.wrap(cells);
+            while (header.hasRemaining() || body.hasRemaining()) {
+                channel.write(new ByteBuffer[]{header, body});
+            }
+        }
+    }
+
+    /**
+     * @return The absolute path of the level file.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Computes the checksum of the level file, to tell whether a file at the same path still holds this level.
+     *
+     * @return The CRC-32 of the whole level file.
+     */
+    public long getChecksum() {
+        CRC32 crc = new CRC32();
+        crc.update(contents.duplicate());
+        return crc.getValue();
+    }
+
+    /**
+     * @return The number of rows of cells.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return The number of cells in each row.
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * @return The number of cells holding a brick.
+     */
+    public int getBrickCount() {
+        return brickCount;
+    }
+
+    /**
+     * @return The top left corner of the brick at row 0 and column 0.
+     */
+    public Vector2 getOrigin() {
+        return origin;
+    }
+
+    /**
+     * @return The width of a brick.
+     */
+    public float getBrickWidth() {
+        return brickWidth;
+    }
+
+    /**
+     * @return The height of a brick.
+     */
+    public float getBrickHeight() {
+        return brickHeight;
+    }
+
+    /**
+     * @return The gap between adjacent bricks, both horizontally and vertically.
+     */
+    public float getPadding() {
+        return padding;
+    }
+
+    /**
+     * Gets the strategy identifier of a cell.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return The strategy identifier of the cell's brick from Constants, or {@link #EMPTY}.
+     */
+    public int getStrategyId(int row, int col) {
+        return cells.get(row * cols + col) & 0xFF;
+    }
+
+    /**
+     * Generates a level file with random strategies, drawn from the weights of a level.
+     *
+     * @param args Command-line arguments: [number of rows, number of columns, level file] or
+     *             [number of rows, number of columns, level file, seed].
+     * @throws IOException if the file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("usage: LevelLayout <rows> <cols> <level file> [seed]");
+            return;
+        }
+        int rows = Integer.parseInt(args[0]);
+        int cols = Integer.parseInt(args[1]);
+        Random random = args.length > 3 ? new Random(Long.parseLong(args[3])) : new Random();
+        StrategyWeights weights = StrategyWeights.forLevel(Integer.getInteger("bricker.level", 1));
+        byte[] cells = new byte[Math.multiplyExact(rows, cols)];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = (byte) weights.getBrickSampler().sample(random);
+        }
+        // bricks fill the window between the walls, and the padding shrinks to at most half of a cell
+        float fieldWidth = Constants.WINDOW_DIMENSIONS.x() - DEFAULT_BORDER * 2;
+        float padding = Math.min(DEFAULT_PADDING, fieldWidth / cols / 2);
+        float brickWidth = (fieldWidth - (padding * cols - 1)) / cols;
+        write(Paths.get(args[2]), rows, cols, new Vector2(DEFAULT_BORDER, DEFAULT_BORDER), brickWidth,
+                DEFAULT_BRICK_HEIGHT, padding, cells);
+    }
+}
@@ -0,0 +1,244 @@
+package bricker.main;
+
+import bricker.utils.Constants;
+import danogl.gui.Sound;
+import danogl.gui.rendering.ImageRenderable;
+import danogl.gui.rendering.Renderable;
+
+import java.awt.Image;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An AssetProvider that loads each asset once and then hands out the shared instance.
+ * The game assets are preloaded at startup, so spawning objects on a brick hit does not decode images
+ * or load sounds on the collision path. The cache also records how long each asset took to load and
+ * an estimate of its memory use.
+ * After preloading, the sprites are packed into a single {@link TextureAtlas}, and their paths resolve to
+ * renderables of their regions in the atlas.
+ *
+ * @author fanteo12
+ */
+public class AssetCache implements AssetProvider {
+
+    private static final String[] TRANSPARENT_IMAGE_PATHS = {
+            Constants.BRICK_IMAGE_PATH, Constants.PADDLE_IMAGE_PATH, Constants.BALL_IMAGE_PATH,
+            Constants.TURBO_BALL_PATH, Constants.HEART_IMAGE_PATH, Constants.PUCK_PATH};
+    private static final String[] OPAQUE_IMAGE_PATHS = {Constants.BACKGROUND_IMAGE_PATH};
+    private static final String[] SOUND_PATHS = {Constants.BLOP_SOUND_PATH};
+    private static final int BYTES_PER_PIXEL = 4;
+    private static final long UNKNOWN_SIZE = -1;
+    private static final String TRANSPARENT_KEY_SUFFIX = "#transparent";
+    private static final float NANOS_IN_MILLI = 1e6f;
+    private static final String ATLAS_KEY = "atlas"; // Key of the atlas in the load statistics
+
+    private final AssetProvider assetProvider; // Loads the assets on a cache miss
+    private final Map<String, Renderable> images = new HashMap<>();
+    private final Map<String, Sound> sounds = new HashMap<>();
+    private final List<AssetStats> stats = new ArrayList<>();
+    private TextureAtlas atlas; // The packed sprites, or null if they were not packed
+
+    /**
+     * Constructs an empty AssetCache.
+     *
+     * @param assetProvider The provider that loads assets which are not cached yet.
+     */
+    public AssetCache(AssetProvider assetProvider) {
+        this.assetProvider = assetProvider;
+    }
+
+    /**
+     * Loads every image and sound path in {@link Constants} that the game uses, and packs the sprites
+     * into an atlas.
+     */
+    public void preloadGameAssets() {
+        for (String path : TRANSPARENT_IMAGE_PATHS) {
+            readImage(path, true);
+        }
+        for (String path : OPAQUE_IMAGE_PATHS) {
+            readImage(path, false);
+        }
+        for (String path : SOUND_PATHS) {
+            readSound(path);
+        }
+        packAtlas();
+    }
+
+    /**
+     * Packs the loaded sprites into an atlas, and replaces each cached sprite with its region.
+     * The background is not packed, as it is large, opaque and drawn once per frame anyway.
+     * Nothing is packed when the provider loads no images, as in a headless simulation.
+     */
+    private void packAtlas() {
+        Map<String, Image> sprites = new LinkedHashMap<>();
+        for (String path : TRANSPARENT_IMAGE_PATHS) {
+            String key = path + TRANSPARENT_KEY_SUFFIX;
+            Renderable image = images.get(key);
+            if (image instanceof ImageRenderable && ((ImageRenderable) image).getImage() != null) {
+                sprites.put(key, ((ImageRenderable) image).getImage());
+            }
+        }
+        if (sprites.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        atlas = TextureAtlas.pack(sprites);
+        long packNanos = System.nanoTime() - start;
+        images.putAll(atlas.getRegions());
+        stats.add(new AssetStats(ATLAS_KEY, packNanos, atlas.getBytes()));
+    }
+
+    /**
+     * @return The atlas of the sprites, or null if they were not packed.
+     */
+    public TextureAtlas getAtlas() {
+        return atlas;
+    }
+
+    /**
+     * Gets an image, loading it on the first request.
+     *
+     * @param path                         The path of the image file.
+     * @param useTopLeftPixelAsTransparent Whether the color of the top left pixel is treated as transparent.
+     * @return The shared renderable of the image, or null if the underlying provider has no images.
+     */
+    @Override
+    public Renderable readImage(String path, boolean useTopLeftPixelAsTransparent) {
+        String key = useTopLeftPixelAsTransparent ? path + TRANSPARENT_KEY_SUFFIX : path;
+        if (images.containsKey(key)) {
+            return images.get(key);
+        }
+        long start = System.nanoTime();
+        Renderable image = assetProvider.readImage(path, useTopLeftPixelAsTransparent);
+        long loadNanos = System.nanoTime() - start;
+        images.put(key, image);
+        stats.add(new AssetStats(key, loadNanos, imageBytes(image)));
+        return image;
+    }
+
+    /**
+     * Gets a sound, loading it on the first request.
+     *
+     * @param path The path of the sound file.
+     * @return The shared sound, or null if the underlying provider has no sounds.
+     */
+    @Override
+    public Sound readSound(String path) {
+        if (sounds.containsKey(path)) {
+            return sounds.get(path);
+        }
+        long start = System.nanoTime();
+        Sound sound = assetProvider.readSound(path);
+        long loadNanos = System.nanoTime() - start;
+        sounds.put(path, sound);
+        stats.add(new AssetStats(path, loadNanos, sound == null ? 0 : fileBytes(path)));
+        return sound;
+    }
+
+    /**
+     * @return The load statistics of every asset loaded so far, in load order.
+     */
+    public List<AssetStats> getStats() {
+        return Collections.unmodifiableList(stats);
+    }
+
+    /**
+     * Prints the load time and memory estimate of every asset loaded so far.
+     *
+     * @param out The stream to print to.
+     */
+    public void printReport(PrintStream out) {
+        long totalNanos = 0;
+        long totalBytes = 0;
+        for (AssetStats asset : stats) {
+            out.printf("%-40s %8.2f ms %10d bytes%n", asset.getKey(), asset.getLoadNanos() / NANOS_IN_MILLI,
+                    asset.getBytes());
+            totalNanos += asset.getLoadNanos();
+            totalBytes += Math.max(0, asset.getBytes());
+        }
+        out.printf("%-40s %8.2f ms %10d bytes%n", "total", totalNanos / NANOS_IN_MILLI, totalBytes);
+    }
+
+    /**
+     * Estimates the memory of a decoded image.
+     *
+     * @param image The loaded image.
+     * @return The size of its pixels, or UNKNOWN_SIZE if the renderable is not an image.
+     */
+    private static long imageBytes(Renderable image) {
+        if (image == null) {
+            return 0;
+        }
+        if (image instanceof ImageRenderable) {
+            ImageRenderable imageRenderable = (ImageRenderable) image;
+            return (long) imageRenderable.width() * imageRenderable.height() * BYTES_PER_PIXEL;
+        }
+        return UNKNOWN_SIZE;
+    }
+
+    /**
+     * Estimates the memory of a loaded sound by the size of its file.
+     *
+     * @param path The path of the sound file.
+     * @return The size of the file, or UNKNOWN_SIZE if it cannot be read.
+     */
+    private static long fileBytes(String path) {
+        try {
+            return Files.size(Paths.get(path));
+        } catch (IOException e) {
+            return UNKNOWN_SIZE;
+        }
+    }
+
+    /**
+     * The load time and estimated memory of a single cached asset.
+     */
+    public static class AssetStats {
+
+        private final String key;
+        private final long loadNanos;
+        private final long bytes;
+
+        /**
+         * Constructs an AssetStats instance.
+         *
+         * @param key       The path of the asset, marked when it is an image with a transparent color.
+         * @param loadNanos The time it took to load the asset, in nanoseconds.
+         * @param bytes     The estimated memory of the asset, or a negative value if unknown.
+         */
+        AssetStats(String key, long loadNanos, long bytes) {
+            this.key = key;
+            this.loadNanos = loadNanos;
+            this.bytes = bytes;
+        }
+
+        /**
+         * @return The path of the asset, marked when it is an image with a transparent color.
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return The time it took to load the asset, in nanoseconds.
+         */
+        public long getLoadNanos() {
+            return loadNanos;
+        }
+
+        /**
+         * @return The estimated memory of the asset, or a negative value if unknown.
+         */
+        public long getBytes() {
+            return bytes;
+        }
+    }
+}
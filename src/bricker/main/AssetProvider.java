@@ -0,0 +1,31 @@
+package bricker.main;
+
+import danogl.gui.Sound;
+import danogl.gui.rendering.Renderable;
+
+/**
+ * Provides the images and sounds used by the Bricker game.
+ * The game rules read assets only through this interface, so they can run with danogl's readers
+ * in a window, or without any assets in a headless simulation.
+ *
+ * @author fanteo12
+ */
+public interface AssetProvider {
+
+    /**
+     * Reads an image asset.
+     *
+     * @param path                         The path of the image file.
+     * @param useTopLeftPixelAsTransparent Whether the color of the top left pixel is treated as transparent.
+     * @return The renderable of the image, or null if the game runs without images.
+     */
+    Renderable readImage(String path, boolean useTopLeftPixelAsTransparent);
+
+    /**
+     * Reads a sound asset.
+     *
+     * @param path The path of the sound file.
+     * @return The sound, or null if the game runs without sound.
+     */
+    Sound readSound(String path);
+}
@@ -1,20 +1,39 @@
 package bricker.main;
 
 import bricker.brickStrategies.CollisionStrategy;
+import bricker.brickStrategies.GridCollisionStrategy;
 import bricker.brickStrategies.StrategyFactory;
+import bricker.brickStrategies.StrategyWeights;
 import bricker.gameObjects.*;
+import bricker.level.ChunkWindow;
+import bricker.level.LevelLayout;
+import bricker.physics.BrickGrid;
+import bricker.physics.MultiBallSystem;
+import bricker.physics.SweptAabb;
 import bricker.utils.Constants;
+import bricker.utils.EntityRegistry;
+import bricker.utils.EventBus;
+import bricker.utils.FlightEvents;
+import bricker.utils.GameEvents;
+import bricker.utils.GameplaySettings;
+import bricker.utils.InputRecorder;
+import bricker.utils.InputSource;
+import bricker.utils.ObjectPool;
+import bricker.utils.SoundMixer;
 import danogl.GameManager;
 import danogl.GameObject;
 import danogl.collisions.Layer;
 import danogl.components.CoordinateSpace;
 import danogl.gui.*;
-import danogl.gui.rendering.ImageRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Counter;
 import danogl.util.Vector2;
 
 import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
@@ -31,7 +50,7 @@ import java.util.Random;
 public class BrickerGameManager extends GameManager {
 
     // Window
-    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(800, 600);
+    private static final Vector2 WINDOW_DIMENSIONS = Constants.WINDOW_DIMENSIONS;
     // Borders
     private static final float BORDER_WIDTH = 15;
     private static final float BORDER_PADDING = BORDER_WIDTH * 1.5f;
@@ -45,45 +64,115 @@ public class BrickerGameManager extends GameManager {
     private static final Vector2 PADDLE_SIZE = new Vector2(100, 15);
     private static final Vector2 PADDLE_POSITION = new Vector2(WINDOW_DIMENSIONS.x() / 2, WINDOW_DIMENSIONS.y() - BORDER_PADDING*2);
     private static final Vector2 TEMP_PADDLE_POS = new Vector2(WINDOW_DIMENSIONS.x()/2,WINDOW_DIMENSIONS.y()/2);
-    private static boolean tempPaddleOn = false;
     private static final int TEMP_PADDLE_COLLISION_COUNT = 4;
     // Bricks
     private static final int BRICK_HEIGHT = 15;
     private static final int DEFAULT_BRICKS_ROW = 7;
     private static final int DEFAULT_BRICKS_IN_ROW = 8;
     private static final int BRICK_PADDING = 5;
+    private static final int INITIAL_BRICK_HITS = 32;
     // Heart & Strikes
     private static final int HEART_PADDING = 5;
     private static final int HEART_SPEED = 100;
+    private static final Vector2 HEART_VELOCITY = Vector2.DOWN.mult(HEART_SPEED);
     private static final int MAX_STRIKES = 4;
     // End game
     private static final String LOSE_PROMPT = "You lose!";
     private static final String PLAY_AGAIN_PROMPT = " Play again?";
     private static final String WIN_PROMPT = "You Win!";
+    // Pools
+    private static final int PUCK_POOL_CAPACITY = Integer.getInteger("bricker.pool.pucks", 64);
+    private static final int HEART_POOL_CAPACITY = Integer.getInteger("bricker.pool.hearts", 16);
+    private static final int TEMP_PADDLE_POOL_CAPACITY = Integer.getInteger("bricker.pool.tempPaddles", 1);
+    // Multiball
+    private static final boolean MULTIBALL_MODE = Boolean.getBoolean("bricker.multiball");
+    private static final int MULTIBALL_CAPACITY = Integer.getInteger("bricker.multiball.capacity", 100_000);
+    private static final int MULTIBALL_VISIBLE_PUCKS = 256;
+    // Level
+    private static final int LEVEL = Integer.getInteger("bricker.level", 1);
+    private static final boolean ENDLESS_MODE = Boolean.getBoolean("bricker.endless");
+    private static final int ENDLESS_CHUNK_ROWS = Integer.getInteger("bricker.endless.chunkRows", 2);
+    // Sound
+    private static final int SOUND_VOICES = 8;
+    private static final long SOUND_MIN_INTERVAL_NANOS = 40_000_000L;
+    private static final long SOUND_VOICE_NANOS = 200_000_000L;
+    // Assets
+    private static final String ASSET_REPORT_PROPERTY = "bricker.assetReport";
+    // Reproducibility
+    private static final Long SEED = Long.getLong("bricker.seed");
+    private static final String RECORD_PROPERTY = "bricker.record";
+    // Frame
+    private static final FramePhase[] STEP_PHASES = Arrays.stream(FramePhase.values())
+            .filter(FramePhase::isStepPhase).toArray(FramePhase[]::new);
+    private static final FramePhase[] FRAME_END_PHASES = Arrays.stream(FramePhase.values())
+            .filter(phase -> !phase.isStepPhase()).toArray(FramePhase[]::new);
+    private static final float FIXED_TIME_STEP = 1 / 120f;
+    private static final int MAX_STEPS_PER_FRAME = 8;
+    private static final float SIMULTANEOUS_HIT_TIME = 1e-4f;
+    private static final float MATERIALIZE_MARGIN = 20;
+    // Diagnostics
+    private static final boolean DIAGNOSTICS = Boolean.getBoolean("bricker.diagnostics");
+    private static final String DIAGNOSTICS_FILE = System.getProperty("bricker.diagnostics.file",
+            "bricker-frame-times.txt");
+    private static final long DIAGNOSTICS_INTERVAL_NANOS =
+            Long.getLong("bricker.diagnostics.intervalSeconds", 10) * 1_000_000_000L;
+    private static final int OVERLAY_TOGGLE_KEY = KeyEvent.VK_F3;
+    private static final Vector2 OVERLAY_POSITION = new Vector2(WINDOW_DIMENSIONS.x() - BORDER_PADDING,
+            BORDER_PADDING);
 
     // Game Manager methods
-    private WindowController windowController; // Manages the game window
-    private UserInputListener inputListener; // Handles user input
-    private ImageReader imageReader; // Reads images for rendering
-    private SoundReader soundReader; // Reads sound files
+    private InputSource inputSource; // Key state read by the paddles and the end game check
+    private AssetCache assetCache; // Reads images and sounds, loaded by the first game and kept across resets
+    private GameEndHandler gameEndHandler; // Handles the win and lose prompts
 
     // Objects
     private Ball ball;
     private LifePanel lifePanel;
     private TempPaddle tempPaddle;
-    private Puck[] pucks;
+    private final EntityRegistry entities = new EntityRegistry();
+    private EventBus eventBus; // Delivers the events of the current game once per step
+    private ObjectPool<Puck> puckPool;
+    private ObjectPool<Heart> heartPool;
+    private ObjectPool<TempPaddle> tempPaddlePool;
+    private final SoundMixer soundMixer = new SoundMixer(SOUND_VOICES, SOUND_MIN_INTERVAL_NANOS,
+            SOUND_VOICE_NANOS);
+    private BrickGrid brickGrid;
+    private ChunkWindow chunkWindow; // The live chunks of the endless field, null unless in endless mode
+    private Renderable brickImage;
+    private Vector2 brickSize;
+    private final BrickGrid.Materializer brickMaterializer = new BrickMaterializer();
+    private StrategyFactory strategyFactory;
+    private CollisionStrategy brickStrategy; // Shared by all bricks, resolves the strategy of the hit cell
+    private MultiBallSystem multiBall; // null unless in multiball mode
+    private GameObject paddle;
+    private Brick[] brickHits = new Brick[INITIAL_BRICK_HITS]; // Grown to the cells a ball's step spans
 
     // Counters
     private Counter strikes;
     private Counter bricksCount;
 
-    private final Random random = new Random();
+    private Long seed = SEED; // The seed of every game, or null for a new seed per game
+    // Times the frame phases, null unless diagnostics are on
+    private final FrameProfiler frameProfiler = DIAGNOSTICS
+            ? new FrameProfiler(DIAGNOSTICS_INTERVAL_NANOS, Paths.get(DIAGNOSTICS_FILE)) : null;
+    private long gameSeed; // The seed of the current game
+    private Random random; // Seeded with the seed of the current game, drives all the random choices
+    private InputRecorder recorder; // Records the key state of the current game, null unless recording
+    private boolean recordingHookAdded;
+    private float timeAccumulator; // Frame time not yet simulated, less than a fixed step
+    private boolean gameEnded; // The end handler was called for the current game
+    private int gameNumber; // Increased for every new game, to notice a game reset in the middle of a frame
     private final int numOfBricksRows;
     private final int numOfBricksCols;
+    private final LevelLayout levelLayout; // The layout read from a level file, null for a random layout
     private boolean isTurbo = false;
-    private int collisionWithBrickNumber;
-    private ImageRenderable ballImage;
-    private ImageRenderable turboBallImage;
+    private boolean tempPaddleOn = false;
+    private Renderable ballImage;
+    private Renderable turboBallImage;
+    private PerformanceOverlay performanceOverlay;
+    private boolean overlayShown = Boolean.getBoolean("bricker.hud"); // Kept across games
+    private boolean overlayKeyDown; // Whether the toggle key was down in the last frame
+    private long brickHitCount; // Bricks hit in the current game
 
     /**
      * Constructs a new BrickerGameManager instance with default brick layout.
@@ -92,9 +181,7 @@ public class BrickerGameManager extends GameManager {
      * @param windowDimensions Dimensions of the game window.
      */
     public BrickerGameManager(String windowTitle, Vector2 windowDimensions) {
-        super(windowTitle, windowDimensions);
-        this.numOfBricksRows = DEFAULT_BRICKS_ROW;
-        this.numOfBricksCols = DEFAULT_BRICKS_IN_ROW;
+        this(windowTitle, windowDimensions, DEFAULT_BRICKS_ROW, DEFAULT_BRICKS_IN_ROW);
     }
 
     /**
@@ -110,6 +197,21 @@ public class BrickerGameManager extends GameManager {
         super(windowTitle, windowDimensions);
         this.numOfBricksRows = numOfBricksRows;
         this.numOfBricksCols = numOfBricksCols;
+        this.levelLayout = null;
+    }
+
+    /**
+     * Constructs a new BrickerGameManager instance with the brick layout of a level file.
+     *
+     * @param windowTitle      Title of the game window.
+     * @param windowDimensions Dimensions of the game window.
+     * @param levelLayout      The layout of the bricks, with their positions, sizes and strategies.
+     */
+    public BrickerGameManager(String windowTitle, Vector2 windowDimensions, LevelLayout levelLayout) {
+        super(windowTitle, windowDimensions);
+        this.numOfBricksRows = levelLayout.getRows();
+        this.numOfBricksCols = levelLayout.getCols();
+        this.levelLayout = levelLayout;
     }
 
     /**
@@ -126,61 +228,298 @@ public class BrickerGameManager extends GameManager {
                                UserInputListener inputListener,
                                WindowController windowController) {
 
-        this.windowController = windowController;
-        this.inputListener = inputListener;
-        this.imageReader = imageReader;
-        this.soundReader = soundReader;
-        this.strikes = new Counter(Constants.STRIKES);
-        this.bricksCount = new Counter(numOfBricksCols * numOfBricksRows);
-        this.pucks = new Puck[NUM_OF_PUCKS];
         super.initializeGame(imageReader, soundReader, inputListener, windowController);
+        InputSource input = inputListener::isKeyPressed;
+        if (System.getProperty(RECORD_PROPERTY) != null) {
+            recorder = new InputRecorder(input);
+            input = recorder;
+            if (!recordingHookAdded) {
+                // a game closed before it ends is saved on exit
+                Runtime.getRuntime().addShutdownHook(new Thread(this::saveRecording, "bricker-recording"));
+                recordingHookAdded = true;
+            }
+        }
+        if (assetCache == null) {
+            assetCache = loadAssets(new DanoglAssetProvider(imageReader, soundReader));
+        }
+        initializeRules(input, prompt -> {
+            saveRecording();
+            if (windowController.openYesNoDialog(prompt)) {
+                windowController.resetGame();
+            } else {
+                windowController.closeWindow();
+            }
+        });
+    }
+
+    /**
+     * Initializes the game without a window, for headless simulations, which pass asset providers that
+     * return no renderables or sounds and end handlers that do not open dialogs.
+     * danogl's game initialization still runs, with a window controller for a window that is never shown
+     * and an input listener that reads the input source, so the game objects are created as in a window.
+     *
+     * @param assetProvider  The provider for images and sounds. May return null renderables and sounds.
+     *                       Only read the first time the game is initialized, the assets are then kept.
+     * @param inputSource    The key state read by the paddles and the end game check.
+     * @param gameEndHandler The handler called with the prompt when the game is won or lost.
+     */
+    public void initializeSimulation(AssetProvider assetProvider, InputSource inputSource,
+                                     GameEndHandler gameEndHandler) {
+        super.initializeGame(null, null, HeadlessWindow.inputListener(inputSource),
+                HeadlessWindow.windowController(WINDOW_DIMENSIONS));
+        if (assetCache == null) {
+            assetCache = loadAssets(assetProvider);
+        }
+        initializeRules(inputSource, gameEndHandler);
+    }
+
+    /**
+     * Loads all the game assets into a cache, so the objects of every game share them. The cache is built
+     * once, by the first game, and packs the sprites into its atlas; a reset reuses it instead of reading
+     * the assets again. Setting the bricker.assetReport system property to true prints the load time and
+     * memory of each asset.
+     *
+     * @param assetProvider The provider for images and sounds. May return null renderables and sounds.
+     * @return The cache holding the loaded assets.
+     */
+    private static AssetCache loadAssets(AssetProvider assetProvider) {
+        AssetCache assetCache = new AssetCache(assetProvider);
+        assetCache.preloadGameAssets();
+        if (Boolean.getBoolean(ASSET_REPORT_PROPERTY)) {
+            assetCache.printReport(System.out);
+        }
+        return assetCache;
+    }
+
+    /**
+     * Initializes the game rules and objects, after danogl initialized the game and the assets were loaded.
+     * All the random choices of the game are drawn from a generator seeded with the seed of the game, so
+     * a game with a fixed seed and the same key state in every frame is reproduced exactly.
+     *
+     * @param inputSource    The key state read by the paddles and the end game check.
+     * @param gameEndHandler The handler called with the prompt when the game is won or lost.
+     */
+    private void initializeRules(InputSource inputSource, GameEndHandler gameEndHandler) {
+        this.gameSeed = seed != null ? seed : new Random().nextLong();
+        this.random = new Random(gameSeed);
+        this.inputSource = inputSource;
+        this.gameEndHandler = gameEndHandler;
+        this.strikes = new Counter(Constants.STRIKES);
+        // in endless mode the counter holds the live bricks, and is increased as chunks are loaded
+        this.bricksCount = new Counter(ENDLESS_MODE ? 0 : levelLayout != null ? levelLayout.getBrickCount()
+                : numOfBricksCols * numOfBricksRows);
+        this.entities.clear();
+        this.isTurbo = false;
+        this.tempPaddleOn = false;
+        this.tempPaddle = null;
+        this.timeAccumulator = 0;
+        this.gameEnded = false;
+        this.gameNumber++;
+        this.brickHitCount = 0;
 
+        initEventBus();
+        initPools();
         initBackground();
         initWalls();
         initBall();
         initPaddle();
         initBricks();
         initLifePanel();
+        initMultiBall();
+        initPerformanceOverlay();
     }
 
     /**
      * Updates the game state, including checking if the ball has fallen off the screen and whether the game has ended.
+     * The game is simulated in fixed steps, whatever the frame time: the frame time is accumulated, and every
+     * full step in the accumulator runs the step phases once. The win check and the audio then run once for
+     * the frame. A slow frame runs at most MAX_STEPS_PER_FRAME steps, so the game slows down instead of
+     * falling further behind. Once the game ends no more steps run, and if the end handler started a new
+     * game, the rest of the frame is skipped, so it does not act on the new game.
+     * States between steps are not interpolated: a frame shorter than a step may run no step and show the
+     * same positions as the frame before it, which is visible as judder above 120 frames per second.
+     * With the bricker.diagnostics system property set to true, every phase and the whole update are timed
+     * by the frame profiler.
      *
-     * @param deltaTime Time elapsed since the last update.
+     * @param deltaTime Time elapsed since the last update (in seconds).
      */
     @Override
     public void update(float deltaTime) {
-        super.update(deltaTime);
+        long frameStart = frameProfiler != null ? System.nanoTime() : 0;
+        int frameGame = gameNumber;
+        inputSource.beginFrame(deltaTime);
+        timeAccumulator = Math.min(timeAccumulator + deltaTime, FIXED_TIME_STEP * MAX_STEPS_PER_FRAME);
+        while (!gameEnded && timeAccumulator >= FIXED_TIME_STEP) {
+            timeAccumulator -= FIXED_TIME_STEP;
+            for (FramePhase phase : STEP_PHASES) {
+                runTimedPhase(phase, FIXED_TIME_STEP);
+                if (gameEnded || gameNumber != frameGame) {
+                    break;
+                }
+            }
+        }
+        if (gameNumber != frameGame) {
+            return;
+        }
+        for (FramePhase phase : FRAME_END_PHASES) {
+            if (phase != FramePhase.GAME_END || !gameEnded) {
+                runTimedPhase(phase, deltaTime);
+            }
+            if (gameNumber != frameGame) {
+                return;
+            }
+        }
+        updatePerformanceOverlay(deltaTime);
+        if (frameProfiler != null) {
+            frameProfiler.recordFrame(System.nanoTime() - frameStart);
+        }
+    }
 
-        // handle game end
-        checkForGameEnd();
+    /**
+     * Shows or hides the performance overlay when its toggle key is pressed, and refreshes it while shown.
+     *
+     * @param deltaTime Time elapsed since the last update (in seconds).
+     */
+    private void updatePerformanceOverlay(float deltaTime) {
+        boolean keyDown = inputSource.isKeyPressed(OVERLAY_TOGGLE_KEY);
+        if (keyDown && !overlayKeyDown) {
+            overlayShown = !overlayShown;
+            for (GameObject line : performanceOverlay.getLines()) {
+                if (overlayShown) {
+                    gameObjects().addGameObject(line, Layer.UI);
+                } else {
+                    removeFromGame(line, Layer.UI);
+                }
+            }
+        }
+        overlayKeyDown = keyDown;
+        if (overlayShown && performanceOverlay.recordFrame(deltaTime)) {
+            performanceOverlay.refresh(entities.count(Constants.PUCK_TAG_NAME)
+                            + (multiBall != null ? multiBall.size() : 0),
+                    entities.count(Constants.EXTRA_HEART_TAG), entities.count(Constants.TEMP_PADDLE_TAG_NAME),
+                    brickGrid.size(), brickGrid.getMaterializedCount(), brickHitCount);
+        }
+    }
 
-        // handle ball fall
-        handleBallFall();
+    /**
+     * Gets the profiler of the frame updates. It is created when the bricker.diagnostics system property is
+     * true, and appends the phase times to the file in bricker.diagnostics.file every
+     * bricker.diagnostics.intervalSeconds seconds.
+     *
+     * @return The frame profiler, or null if diagnostics are off.
+     */
+    public FrameProfiler getFrameProfiler() {
+        return frameProfiler;
+    }
 
-        // handle temp paddle
-        handleTempPaddle();
+    /**
+     * Fixes the seed of the games started from now on. Without a fixed seed, set by this method or by the
+     * bricker.seed system property, every game draws a new seed.
+     *
+     * @param seed The seed of the games.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
 
-        // handle pucks
-        checkIfPucksFall(pucks);
+    /**
+     * @return The seed of the current game.
+     */
+    public long getSeed() {
+        return gameSeed;
+    }
 
-        // handle turbo ball
-        if (isTurbo && ball.getCollisionCounter() >
-            collisionWithBrickNumber+TURBO_BALL_STRIKES) {
-            setTurboOff();
+    /**
+     * Runs a phase of the frame update, timing it with the frame profiler when diagnostics are on.
+     *
+     * @param phase     The phase to run.
+     * @param deltaTime Time elapsed since the last update, used by the physics phase.
+     */
+    private void runTimedPhase(FramePhase phase, float deltaTime) {
+        if (frameProfiler == null) {
+            runPhase(phase, deltaTime);
+            return;
         }
+        long phaseStart = System.nanoTime();
+        runPhase(phase, deltaTime);
+        frameProfiler.recordPhase(phase, System.nanoTime() - phaseStart);
+    }
 
-        // handle falling heart
-        checkIfHeartFall();
-        checkIfHeartCatch();
+    /**
+     * Runs a single phase of the frame update. Used by {@link #update} and by benchmarks that measure
+     * the cost of each phase separately.
+     *
+     * @param phase     The phase to run.
+     * @param deltaTime Time elapsed since the last update, used by the physics phase.
+     */
+    public void runPhase(FramePhase phase, float deltaTime) {
+        switch (phase) {
+            case PHYSICS:
+                super.update(deltaTime);
+                break;
+            case PADDLE_SWEEP:
+                handlePaddleSweep();
+                break;
+            case BRICK_MATERIALIZATION:
+                materializeNearBalls();
+                break;
+            case BRICK_COLLISIONS:
+                handleBrickCollisions(deltaTime);
+                break;
+            case MULTIBALL:
+                handleMultiBall(deltaTime);
+                break;
+            case ENDLESS_FIELD:
+                advanceEndlessField();
+                break;
+            case GAME_END:
+                checkForGameEnd();
+                break;
+            case EVENTS:
+                eventBus.dispatch();
+                break;
+            case PUCKS_FALL:
+                checkIfPucksFall(entities.withTag(Constants.PUCK_TAG_NAME));
+                break;
+            case HEART_FALL:
+                checkIfHeartFall();
+                break;
+            case AUDIO:
+                soundMixer.flush();
+                break;
+            default:
+                break;
+        }
     }
 
     /**
-     * Turns on turbo mode for the ball.
+     * Creates the event bus of a new game, and subscribes the game rules to the events of the game objects.
+     */
+    private void initEventBus() {
+        eventBus = new EventBus();
+        eventBus.subscribe(GameEvents.BallLost.class, event -> handleBallFall());
+        eventBus.subscribe(GameEvents.PaddleExpired.class, event -> handleTempPaddle());
+        eventBus.subscribe(GameEvents.TurboExpired.class, event -> handleTurbo());
+        eventBus.subscribe(GameEvents.HeartCaught.class, event -> handleHeartCatch((Heart) event.getHeart()));
+        eventBus.subscribe(GameEvents.BrickDestroyed.class, event -> brickHitCount++);
+    }
+
+    /**
+     * Turns off turbo mode once the ball has hit enough objects since it was turned on.
+     */
+    private void handleTurbo() {
+        if (isTurbo) {
+            setTurboOff();
+        }
+    }
+
+    /**
+     * Turns on turbo mode for the ball. The ball publishes a TurboExpired event on the collision after
+     * TURBO_BALL_STRIKES more collisions.
      */
     public void setTurboOn(){
         if (!isTurbo){
-            collisionWithBrickNumber = ball.getCollisionCounter();
+            ball.startTurbo(TURBO_BALL_STRIKES + 1);
             ball.setVelocity(ball.getVelocity().mult(Constants.TURBO_FACTOR));
             ball.renderer().setRenderable(turboBallImage);
             isTurbo = true;
@@ -192,6 +531,7 @@ public class BrickerGameManager extends GameManager {
      */
     public void setTurboOff(){
         isTurbo = false;
+        ball.startTurbo(0);
         ball.setVelocity(ball.getVelocity().mult(1/Constants.TURBO_FACTOR));
         ball.renderer().setRenderable(ballImage);
     }
@@ -200,30 +540,31 @@ public class BrickerGameManager extends GameManager {
      * Checks if the heart object has fallen off the screen and removes it if it has.
      */
     private void checkIfHeartFall() {
-        for (GameObject object : gameObjects()) {
-            if (object.getTag().equals(Constants.EXTRA_HEART_TAG) && object.getCenter().y() > WINDOW_DIMENSIONS.y()) {
-                gameObjects().removeGameObject(object);
+        List<GameObject> hearts = entities.withTag(Constants.EXTRA_HEART_TAG);
+        for (int i = hearts.size() - 1; i >= 0; i--) {
+            GameObject object = hearts.get(i);
+            if (object.getCenter().y() > WINDOW_DIMENSIONS.y()) {
+                removeEntity(object);
+                heartPool.release((Heart) object);
             }
         }
     }
 
     /**
-     * Checks if the heart object has been caught by the player and updates the number of strikes.
-     * If the heart is caught, a new heart object is created and added to the life panel.
+     * Handles a heart caught by the player by updating the number of strikes, if they are not at the maximum.
+     * The caught heart is removed, and a new heart object is created and added to the life panel.
+     *
+     * @param heart The caught heart.
      */
-    private void checkIfHeartCatch() {
-        for (GameObject gameObject: gameObjects()) {
-            if (gameObject.getTag().equals(Constants.EXTRA_HEART_TAG) &&
-                    strikes.value() < MAX_STRIKES &&
-                    ((Heart) gameObject).getIsHeartTaken()) {
-
-                strikes.increment();
-                GameObject newHeart = new Heart(gameObject.getTopLeftCorner(), Constants.HEART_DIMENSIONS,
-                        gameObject.renderer().getRenderable());
-                lifePanel.updateLives(strikes, newHeart);
-                gameObjects().removeGameObject(gameObject);
-                gameObjects().addGameObject(lifePanel.getLastElement(), Layer.UI);
-            }
+    private void handleHeartCatch(Heart heart) {
+        if (strikes.value() < MAX_STRIKES && entities.remove(heart)) {
+            strikes.increment();
+            GameObject newHeart = new Heart(heart.getTopLeftCorner(), Constants.HEART_DIMENSIONS,
+                    heart.renderer().getRenderable());
+            lifePanel.updateLives(strikes, newHeart);
+            removeFromGame(heart, Layer.DEFAULT);
+            heartPool.release(heart);
+            gameObjects().addGameObject(lifePanel.getLastElement(), Layer.UI);
         }
     }
 
@@ -233,22 +574,41 @@ public class BrickerGameManager extends GameManager {
      * @param extraHeartPosition The position of the extra heart.
      */
     public void createExtraLife(Vector2 extraHeartPosition) {
-        Renderable heartImage = imageReader.readImage(Constants.HEART_IMAGE_PATH, true);
-        Heart extraHeart = new Heart(extraHeartPosition, Constants.HEART_DIMENSIONS, heartImage);
-        extraHeart.setTag(Constants.EXTRA_HEART_TAG);
-        extraHeart.setVelocity(Vector2.DOWN.mult(HEART_SPEED));
-        gameObjects().addGameObject(extraHeart);
+        FlightEvents.EntitySpawn event = new FlightEvents.EntitySpawn();
+        event.begin();
+        Heart extraHeart = heartPool.acquire();
+        extraHeart.reset();
+        extraHeart.setTopLeftCorner(extraHeartPosition);
+        extraHeart.setVelocity(HEART_VELOCITY);
+        addEntity(extraHeart);
+        commitSpawn(event, Constants.EXTRA_HEART_TAG, 1);
+    }
+
+    /**
+     * Commits a spawn event, if it is recorded.
+     *
+     * @param event The event, begun before the objects were spawned.
+     * @param kind  The kind of the spawned objects.
+     * @param count The number of spawned objects.
+     */
+    private static void commitSpawn(FlightEvents.EntitySpawn event, String kind, int count) {
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.count = count;
+            event.commit();
+        }
     }
 
     /**
      * Manages the lifecycle of the temporary paddle.
-     * Removes the paddle and resets its flag if its work is complete.
+     * Removes the paddle and resets its flag once its work is complete.
      */
     private void handleTempPaddle() {
-
         if (tempPaddle != null && tempPaddle.checkIfPaddleWorkEnd()){
             tempPaddleOn = false;
-            gameObjects().removeGameObject(tempPaddle);
+            removeEntity(tempPaddle);
+            tempPaddlePool.release(tempPaddle);
+            tempPaddle = null;
         }
     }
 
@@ -257,22 +617,27 @@ public class BrickerGameManager extends GameManager {
      */
     public void createTempPaddle() {
         if (!tempPaddleOn) {
-            Renderable paddleImage = imageReader.readImage(Constants.PADDLE_IMAGE_PATH, true);
-            tempPaddle = new TempPaddle(TEMP_PADDLE_POS, PADDLE_SIZE, paddleImage,
-                    inputListener, WINDOW_DIMENSIONS.x(),new Counter(TEMP_PADDLE_COLLISION_COUNT));
-            gameObjects().addGameObject(tempPaddle);
+            FlightEvents.EntitySpawn event = new FlightEvents.EntitySpawn();
+            event.begin();
+            tempPaddle = tempPaddlePool.acquire();
+            tempPaddle.reset(TEMP_PADDLE_COLLISION_COUNT);
+            tempPaddle.setTopLeftCorner(TEMP_PADDLE_POS);
+            addEntity(tempPaddle);
             tempPaddleOn = true;
+            commitSpawn(event, Constants.TEMP_PADDLE_TAG_NAME, 1);
         }
     }
 
     /**
      * check if puck ball fall and remove it
-     * @param pucks an array of puck objects
+     * @param pucks the live puck objects
      */
-    private void checkIfPucksFall(GameObject[] pucks) {
-        for (GameObject object : pucks) {
-            if (object != null && object.getCenter().y() > WINDOW_DIMENSIONS.y()) {
-                gameObjects().removeGameObject(object);
+    private void checkIfPucksFall(List<GameObject> pucks) {
+        for (int i = pucks.size() - 1; i >= 0; i--) {
+            GameObject puck = pucks.get(i);
+            if (puck.getCenter().y() > WINDOW_DIMENSIONS.y()) {
+                removeEntity(puck);
+                puckPool.release((Puck) puck);
             }
         }
     }
@@ -282,77 +647,220 @@ public class BrickerGameManager extends GameManager {
      *
      *
      * @param location The location where the pucks should be created.
+     * @return The number of pucks created.
      */
-    public void createPucks(Vector2 location) {
-        Renderable puckImage = imageReader.readImage(Constants.PUCK_PATH, true);
-        Sound collisionSound = soundReader.readSound(Constants.BLOP_SOUND_PATH);
+    public int createPucks(Vector2 location) {
+        FlightEvents.EntitySpawn event = new FlightEvents.EntitySpawn();
+        event.begin();
+        if (multiBall != null) {
+            int spawned = spawnMultiBallPucks(location);
+            commitSpawn(event, Constants.PUCK_TAG_NAME, spawned);
+            return spawned;
+        }
+        for (int i = 0; i < NUM_OF_PUCKS; i++) {
+            Puck puck = puckPool.acquire();
+            puck.resetCollisionCounter();
+            puck.setTopLeftCorner(location);
+            double angle = random.nextDouble() * Math.PI;
+            float velocityX = (float)Math.cos(angle) * Constants.BALL_SPEED;
+            float velocityY = (float)Math.sin(angle) * Constants.BALL_SPEED;
+            puck.setVelocity(new Vector2(velocityX,velocityY));
+            addEntity(puck);
+        }
+        commitSpawn(event, Constants.PUCK_TAG_NAME, NUM_OF_PUCKS);
+        return NUM_OF_PUCKS;
+    }
 
+    /**
+     * Spawns pucks into the multiball system, with the same random directions as puck objects.
+     *
+     * @param location The location where the pucks should be created.
+     * @return The number of pucks created, less than requested if the system is full.
+     */
+    private int spawnMultiBallPucks(Vector2 location) {
+        int spawned = 0;
         for (int i = 0; i < NUM_OF_PUCKS; i++) {
-            pucks[i] = new Puck(location, PUCK_SIZE, puckImage, collisionSound);
-            pucks[i].setTag(Constants.PUCK_TAG_NAME);
             double angle = random.nextDouble() * Math.PI;
             float velocityX = (float)Math.cos(angle) * Constants.BALL_SPEED;
             float velocityY = (float)Math.sin(angle) * Constants.BALL_SPEED;
-            pucks[i].setVelocity(new Vector2(velocityX,velocityY));
-            gameObjects().addGameObject(pucks[i]);
+            if (multiBall.spawn(location, velocityX, velocityY)) {
+                spawned++;
+            }
         }
+        return spawned;
     }
 
     /**
-     * Checks for win or loss conditions and handles the end of the game.
+     * Steps the multiball system: moves its pucks, bounces them off the walls, the paddles and the bricks,
+     * and removes the pucks that fell. Bounces off the temporary paddle count towards its collisions.
+     *
+     * @param deltaTime Time elapsed since the last update.
+     */
+    private void handleMultiBall(float deltaTime) {
+        if (multiBall == null) {
+            return;
+        }
+        multiBall.move(deltaTime, brickGrid);
+        multiBall.bounceOff(paddle);
+        if (tempPaddle != null) {
+            for (int bounces = multiBall.bounceOff(tempPaddle); bounces > 0; bounces--) {
+                tempPaddle.countCollision();
+            }
+        }
+        multiBall.resolveBrickHits(brickGrid);
+        multiBall.removeFallen();
+        multiBall.updateProxies();
+    }
+
+    /**
+     * Creates the multiball system when the bricker.multiball system property is true. In this mode, puck
+     * strategies spawn pucks into the system instead of creating puck objects, and only a bounded number of
+     * them are shown, through proxy objects in the foreground layer.
+     */
+    private void initMultiBall() {
+        multiBall = null;
+        if (!MULTIBALL_MODE) {
+            return;
+        }
+        GameObject[] proxies = new GameObject[MULTIBALL_VISIBLE_PUCKS];
+        for (int i = 0; i < proxies.length; i++) {
+            proxies[i] = new GameObject(Vector2.ZERO, PUCK_SIZE, null);
+            gameObjects().addGameObject(proxies[i], Layer.FOREGROUND);
+        }
+        GameObject hitter = new GameObject(Vector2.ZERO, PUCK_SIZE, null);
+        hitter.setTag(Constants.PUCK_TAG_NAME);
+        multiBall = new MultiBallSystem(MULTIBALL_CAPACITY, PUCK_SIZE, BORDER_WIDTH,
+                WINDOW_DIMENSIONS.x() - BORDER_WIDTH, BORDER_WIDTH, WINDOW_DIMENSIONS.y(), hitter, proxies,
+                assetCache.readImage(Constants.PUCK_PATH, true));
+    }
+
+    /**
+     * Checks for the win conditions and handles the end of the game. The game is lost when the ball falls on
+     * the last strike, which is handled on the BallLost event.
      */
     private void checkForGameEnd(){
         // get string for result prompt
         String prompt = "";
         // check win condition
-        if (bricksCount.value() <= 0 || inputListener.isKeyPressed(KeyEvent.VK_W)){
+        // the endless field never runs out of bricks
+        if ((chunkWindow == null && bricksCount.value() <= 0) || inputSource.isKeyPressed(KeyEvent.VK_W)){
             prompt = WIN_PROMPT;
         }
-        // check lose condition
-        if (ball.getCenter().y() > WINDOW_DIMENSIONS.y() && strikes.value() == 1){
-
-            prompt = LOSE_PROMPT;
-        }
         // handle result prompt
         if (!prompt.isEmpty()) {
-            prompt += PLAY_AGAIN_PROMPT;
-            // handle end game
-            if (windowController.openYesNoDialog((prompt))) {
-                windowController.resetGame();
-            } else {
-                windowController.closeWindow();
-            }
+            endGame(prompt);
         }
     }
 
     /**
-     * Checks if the ball has fallen off the screen and updates the player's lives.
+     * Ends the game with a result prompt. The event bus of the game is closed first, so the events still
+     * queued are not delivered, even to a new game the end handler starts.
+     *
+     * @param prompt The result of the game, without the play again question.
+     */
+    private void endGame(String prompt) {
+        gameEnded = true;
+        eventBus.close();
+        gameEndHandler.onGameEnd(prompt + PLAY_AGAIN_PROMPT);
+    }
+
+    /**
+     * Handles the ball falling off the screen: the game is lost on the last strike, and otherwise the
+     * player's lives are updated and the ball is served again.
      */
     private void handleBallFall() {
-        // check if ball out of bound
-        if (ball.getCenter().y() > WINDOW_DIMENSIONS.y() && strikes.value() > 0) {
+        // check lose condition
+        if (strikes.value() == 1) {
+            endGame(LOSE_PROMPT);
+            return;
+        }
+        if (strikes.value() > 0) {
             //update life panel
             strikes.decrement();// update strikes
             GameObject heartToRemove = lifePanel.getLastElement();
-            gameObjects().removeGameObject(heartToRemove,Layer.UI);
+            removeFromGame(heartToRemove, Layer.UI);
             lifePanel.updateLives(strikes,null);// update lifePanel
             // reset ball
-            ball.setCenter(windowController.getWindowDimensions().mult(0.5f));
+            ball.setCenter(WINDOW_DIMENSIONS.mult(0.5f));
             setBallVelocity();
         }
     }
 
+    /**
+     * Creates the pools that reuse pucks, extra hearts and the temporary paddle once they leave the game.
+     * Their capacities can be set with the bricker.pool.pucks, bricker.pool.hearts and
+     * bricker.pool.tempPaddles system properties.
+     */
+    private void initPools() {
+        Renderable puckImage = assetCache.readImage(Constants.PUCK_PATH, true);
+        SoundMixer.MixedSound collisionSound = soundMixer.mix(assetCache.readSound(Constants.BLOP_SOUND_PATH));
+        puckPool = new ObjectPool<>(PUCK_POOL_CAPACITY, () -> {
+            Puck puck = new Puck(Vector2.ZERO, PUCK_SIZE, puckImage, collisionSound);
+            puck.setTag(Constants.PUCK_TAG_NAME);
+            return puck;
+        });
+
+        Renderable heartImage = assetCache.readImage(Constants.HEART_IMAGE_PATH, true);
+        heartPool = new ObjectPool<>(HEART_POOL_CAPACITY, () -> {
+            Heart heart = new Heart(Vector2.ZERO, Constants.HEART_DIMENSIONS, heartImage, eventBus);
+            heart.setTag(Constants.EXTRA_HEART_TAG);
+            return heart;
+        });
+
+        Renderable paddleImage = assetCache.readImage(Constants.PADDLE_IMAGE_PATH, true);
+        tempPaddlePool = new ObjectPool<>(TEMP_PADDLE_POOL_CAPACITY, () -> {
+            TempPaddle newTempPaddle = new TempPaddle(TEMP_PADDLE_POS, PADDLE_SIZE, paddleImage,
+                    inputSource, WINDOW_DIMENSIONS.x(), new Counter(TEMP_PADDLE_COLLISION_COUNT), eventBus);
+            newTempPaddle.setTag(Constants.TEMP_PADDLE_TAG_NAME);
+            return newTempPaddle;
+        });
+    }
+
+    /**
+     * @return the pool of pucks, for reading its counters
+     */
+    public ObjectPool<Puck> getPuckPool() {
+        return puckPool;
+    }
+
+    /**
+     * @return the pool of extra hearts, for reading its counters
+     */
+    public ObjectPool<Heart> getHeartPool() {
+        return heartPool;
+    }
+
+    /**
+     * @return the pool of temporary paddles, for reading its counters
+     */
+    public ObjectPool<TempPaddle> getTempPaddlePool() {
+        return tempPaddlePool;
+    }
+
     /**
      * Initializes the life panel which displays the number of lives remaining, both numerically and with graphical hearts.
      */
     private void initLifePanel() {
         // create lifePanel
-        Renderable heartImage = imageReader.readImage(Constants.HEART_IMAGE_PATH,true);
+        Renderable heartImage = assetCache.readImage(Constants.HEART_IMAGE_PATH,true);
         Vector2 lifePanelPosition = new Vector2(HEART_PADDING*2,WINDOW_DIMENSIONS.y() - BORDER_PADDING);
         lifePanel = new LifePanel(strikes,lifePanelPosition,heartImage);
         locateLifePanel();
     }
 
+    /**
+     * Creates the performance overlay in the top right corner of the window. It is shown from the start if the
+     * bricker.hud system property is true, and toggled with F3.
+     */
+    private void initPerformanceOverlay() {
+        performanceOverlay = new PerformanceOverlay(OVERLAY_POSITION);
+        if (overlayShown) {
+            for (GameObject line : performanceOverlay.getLines()) {
+                gameObjects().addGameObject(line, Layer.UI);
+            }
+        }
+    }
+
     /**
      * put life panel on board
      */
@@ -367,19 +875,314 @@ public class BrickerGameManager extends GameManager {
     /**
      * Initializes the brick layout in the game. Bricks are placed in a grid pattern
      * with padding between them. Each brick uses a collision strategy for handling interactions.
+     * Bricks are indexed in a BrickGrid, which finds their collisions with balls and pucks, so danogl
+     * does not test them against every moving object.
+     * The grid and the strategy id of each brick come from the level file if there is one. Otherwise the
+     * bricks fill the window between the walls and their strategy ids are drawn at random.
+     * Only the strategy id of each brick is set here, the strategy itself is resolved on the first hit.
+     * In endless mode the grid holds a window of chunks of the endless field, see {@link #advanceEndlessField}.
+     * The grid only keeps the live cells; brick game objects are materialised near the balls, see
+     * {@link #materializeNearBalls}, and the whole field is drawn by a single BrickFieldRenderable.
      */
     private void initBricks() {
-        Renderable brickImage = imageReader.readImage(Constants.BRICK_IMAGE_PATH, true);
-        float brickWidth = (WINDOW_DIMENSIONS.x() - BORDER_WIDTH * 2 - (BRICK_PADDING * numOfBricksCols - 1)) / numOfBricksCols;
+        brickImage = assetCache.readImage(Constants.BRICK_IMAGE_PATH, true);
+        int gridRows = numOfBricksRows;
+        chunkWindow = null;
+        if (ENDLESS_MODE) {
+            int chunkRows = Math.max(1, Math.min(ENDLESS_CHUNK_ROWS, numOfBricksRows));
+            chunkWindow = new ChunkWindow(Math.max(1, numOfBricksRows / chunkRows), chunkRows);
+            gridRows = chunkWindow.getBands() * chunkRows;
+        }
+        if (levelLayout != null) {
+            brickSize = new Vector2(levelLayout.getBrickWidth(), levelLayout.getBrickHeight());
+            brickGrid = new BrickGrid(gridRows, numOfBricksCols, levelLayout.getOrigin(),
+                    brickSize.x(), brickSize.y(), levelLayout.getPadding(), brickMaterializer);
+        } else {
+            float fieldWidth = WINDOW_DIMENSIONS.x() - BORDER_WIDTH * 2;
+            // with many columns the padding shrinks, so it never takes more than half of a cell
+            float padding = Math.min(BRICK_PADDING, fieldWidth / numOfBricksCols / 2);
+            float brickWidth = (fieldWidth - (padding * numOfBricksCols - 1)) / numOfBricksCols;
+            brickSize = new Vector2(brickWidth, BRICK_HEIGHT);
+            brickGrid = new BrickGrid(gridRows, numOfBricksCols, getBrickPosition(0, 0, brickWidth),
+                    brickWidth, BRICK_HEIGHT, padding, brickMaterializer);
+        }
+        GameObject brickField = new GameObject(Vector2.ZERO, WINDOW_DIMENSIONS,
+                new BrickFieldRenderable(brickGrid, brickImage, WINDOW_DIMENSIONS));
+        gameObjects().addGameObject(brickField, Layer.BACKGROUND);
+        gameObjects().layers().shouldLayersCollide(Layer.DEFAULT, Layer.STATIC_OBJECTS, false);
+        strategyFactory = new StrategyFactory(this, bricksCount, random.nextLong(),
+                StrategyWeights.forLevel(LEVEL));
+        brickStrategy = new GridCollisionStrategy(strategyFactory, brickGrid, this::fieldRow);
 
-        for (int i = 0; i < numOfBricksRows; i++) {
+        if (chunkWindow == null) {
+            loadBricks(0, gridRows);
+            return;
+        }
+        int chunkRows = chunkWindow.getChunkRows();
+        for (int band = 0; band < chunkWindow.getBands(); band++) {
+            int loaded = loadBricks(band * chunkRows, (band + 1) * chunkRows);
+            chunkWindow.setBandBricks(band, loaded);
+            bricksCount.increaseBy(loaded);
+        }
+    }
+
+    /**
+     * Fills the cells of a range of grid rows with their strategy ids. No brick game object is created.
+     *
+     * @param firstRow the first grid row to fill.
+     * @param endRow   the grid row after the last row to fill.
+     * @return the number of bricks placed, which is less than the number of cells if the level has empty cells.
+     */
+    private int loadBricks(int firstRow, int endRow) {
+        int loaded = 0;
+        for (int i = firstRow; i < endRow; i++) {
+            int fieldRow = fieldRow(i);
             for (int j = 0; j < numOfBricksCols; j++) {
-                Vector2 brickPos = getBrickPosition(i,j,brickWidth);
-                CollisionStrategy collisionStrategy = getCollisionStrategy();
-                GameObject brick = new Brick(brickPos, new Vector2(brickWidth, BRICK_HEIGHT), brickImage, collisionStrategy);
-                gameObjects().addGameObject(brick,Layer.STATIC_OBJECTS);
+                int strategyId = levelLayout != null
+                        ? levelLayout.getStrategyId(Math.floorMod(fieldRow, levelLayout.getRows()), j)
+                        : strategyFactory.selectStrategyId(fieldRow, j);
+                if (strategyId == LevelLayout.EMPTY) {
+                    continue;
+                }
+                brickGrid.add(i, j, strategyId);
+                loaded++;
             }
         }
+        return loaded;
+    }
+
+    /**
+     * Finds the row of the field shown in a grid row. In endless mode, cells are identified by their row in
+     * the whole field, so a cell keeps its strategy whichever band it is shown in.
+     *
+     * @param gridRow the row of the grid.
+     * @return the row of the field.
+     */
+    private int fieldRow(int gridRow) {
+        return chunkWindow != null ? (int) chunkWindow.fieldRow(gridRow) : gridRow;
+    }
+
+    /**
+     * Materialises the bricks near the ball and the pucks, covering the box each of them swept in the last
+     * step, and drops the materialised bricks no ball is near anymore. Multiball pucks are not covered;
+     * the bricks they hit are materialised when the hit is resolved.
+     */
+    private void materializeNearBalls() {
+        brickGrid.beginMaterialization();
+        materializeNear(ball);
+        List<Puck> pucks = entities.ofType(Puck.class);
+        for (int i = 0, numOfPucks = pucks.size(); i < numOfPucks; i++) {
+            materializeNear(pucks.get(i));
+        }
+        brickGrid.endMaterialization();
+    }
+
+    /**
+     * Materialises the bricks near a single ball.
+     *
+     * @param ball the ball or puck.
+     */
+    private void materializeNear(Ball ball) {
+        Vector2 topLeft = ball.getTopLeftCorner();
+        Vector2 dimensions = ball.getDimensions();
+        float minX = Math.min(ball.getPreviousTopLeftX(), topLeft.x());
+        float minY = Math.min(ball.getPreviousTopLeftY(), topLeft.y());
+        float maxX = Math.max(ball.getPreviousTopLeftX(), topLeft.x()) + dimensions.x();
+        float maxY = Math.max(ball.getPreviousTopLeftY(), topLeft.y()) + dimensions.y();
+        brickGrid.materializeAround(minX - MATERIALIZE_MARGIN, minY - MATERIALIZE_MARGIN,
+                maxX + MATERIALIZE_MARGIN, maxY + MATERIALIZE_MARGIN);
+    }
+
+    /**
+     * Advances the endless field once the chunk nearest to the paddle is cleared. The bricks of the other
+     * chunks move down by one chunk, and the next chunk of the field is loaded into the top band, so the
+     * number of live bricks, and the cost of a frame, stay bounded however many chunks are cleared.
+     * A level file is repeated as the source of the chunks.
+     */
+    private void advanceEndlessField() {
+        if (chunkWindow == null) {
+            return;
+        }
+        int chunkRows = chunkWindow.getChunkRows();
+        // empty chunks are skipped, at most a window of them per step
+        for (int advances = 0; advances < chunkWindow.getBands() && chunkWindow.isBottomChunkCleared(); advances++) {
+            // materialised bricks would be left at their old positions, they are materialised again if near a ball
+            brickGrid.dematerializeAll();
+            brickGrid.shiftDown(chunkRows);
+            chunkWindow.advance();
+            int loaded = loadBricks(0, chunkRows);
+            chunkWindow.setBandBricks(0, loaded);
+            bricksCount.increaseBy(loaded);
+        }
+    }
+
+    /**
+     * @return the number of bricks hit in the current game, counted when their events are dispatched.
+     */
+    public long getBrickHitCount() {
+        return brickHitCount;
+    }
+
+    /**
+     * @return the number of chunks of the endless field cleared so far, 0 unless in endless mode.
+     */
+    public long getClearedChunks() {
+        return chunkWindow == null ? 0 : chunkWindow.getClearedChunks();
+    }
+
+    /**
+     * Catches the ball and the pucks that moved through a paddle within a single step. danogl only reports
+     * paddles they overlap at the end of the step, which a fast ball can skip.
+     */
+    private void handlePaddleSweep() {
+        handlePaddleSweep(ball);
+        List<Puck> pucks = entities.ofType(Puck.class);
+        for (int i = 0, numOfPucks = pucks.size(); i < numOfPucks; i++) {
+            handlePaddleSweep(pucks.get(i));
+        }
+    }
+
+    /**
+     * Bounces a single ball off the paddles it moved through in the last step.
+     *
+     * @param ball the ball or puck to check.
+     */
+    private void handlePaddleSweep(Ball ball) {
+        if (sweepOffPaddle(ball, paddle) || tempPaddle == null) {
+            return;
+        }
+        if (sweepOffPaddle(ball, tempPaddle)) {
+            tempPaddle.countCollision();
+        }
+    }
+
+    /**
+     * Bounces a ball off a paddle if it moved into the paddle in the last step, through any of its faces.
+     * The ball is moved back to where it touched the paddle and bounced off the face it hit. A ball danogl
+     * already bounced off that face is moving away from it, and is left alone.
+     *
+     * @param ball   the ball or puck to check.
+     * @param target the paddle.
+     * @return true if the ball was bounced off the paddle.
+     */
+    private boolean sweepOffPaddle(Ball ball, GameObject target) {
+        Vector2 topLeft = ball.getTopLeftCorner();
+        Vector2 dimensions = ball.getDimensions();
+        float startX = ball.getPreviousTopLeftX();
+        float startY = ball.getPreviousTopLeftY();
+        float dx = topLeft.x() - startX;
+        float dy = topLeft.y() - startY;
+        float time = SweptAabb.timeOfImpact(startX, startY, dimensions.x(), dimensions.y(), dx, dy, target);
+        if (time == SweptAabb.NO_HIT) {
+            return false;
+        }
+        Vector2 normal = SweptAabb.impactNormal(startX, startY, dimensions.x(), dimensions.y(), dx, dy, target);
+        if (ball.getVelocity().dot(normal) >= 0) {
+            return false;
+        }
+        ball.transform().setTopLeftCornerX(startX + dx * time);
+        ball.transform().setTopLeftCornerY(startY + dy * time);
+        ball.bounce(normal);
+        return true;
+    }
+
+    /**
+     * Finds the bricks hit by the ball and the pucks through the brick grid, bounces each of them
+     * off the first brick it hit and invokes the strategies of the bricks it hit.
+     *
+     * @param deltaTime the time of the step, in seconds.
+     */
+    private void handleBrickCollisions(float deltaTime) {
+        handleBrickCollisions(ball, deltaTime);
+        // pucks created by a hit are appended to the registry and checked from the next frame
+        List<Puck> pucks = entities.ofType(Puck.class);
+        for (int i = 0, numOfPucks = pucks.size(); i < numOfPucks; i++) {
+            handleBrickCollisions(pucks.get(i), deltaTime);
+        }
+    }
+
+    /**
+     * Handles the brick collisions of a single ball. The box the ball swept in the last step is tested
+     * against the bricks, so a fast ball hits the first brick on its way instead of passing through it.
+     * The ball is moved back to where it touched the brick, bounced, and moved on with its new velocity
+     * for the rest of the step. A ball that was already overlapping bricks at the start of the step
+     * bounces off the brick it overlaps the most.
+     *
+     * @param ball      the ball or puck to check.
+     * @param deltaTime the time of the step, in seconds.
+     */
+    private void handleBrickCollisions(Ball ball, float deltaTime) {
+        Vector2 topLeft = ball.getTopLeftCorner();
+        Vector2 dimensions = ball.getDimensions();
+        float width = dimensions.x();
+        float height = dimensions.y();
+        float startX = ball.getPreviousTopLeftX();
+        float startY = ball.getPreviousTopLeftY();
+        float dx = topLeft.x() - startX;
+        float dy = topLeft.y() - startY;
+        float sweptMinX = Math.min(startX, topLeft.x());
+        float sweptMinY = Math.min(startY, topLeft.y());
+        float sweptMaxX = Math.max(startX, topLeft.x()) + width;
+        float sweptMaxY = Math.max(startY, topLeft.y()) + height;
+        // the buffer must hold every brick on the way, or the one hit first could be left out
+        int span = brickGrid.cellSpan(sweptMinX, sweptMinY, sweptMaxX, sweptMaxY);
+        if (span > brickHits.length) {
+            brickHits = Arrays.copyOf(brickHits, Math.max(span, brickHits.length * 2));
+        }
+        int hits = brickGrid.query(sweptMinX, sweptMinY, sweptMaxX, sweptMaxY, brickHits);
+        if (hits == 0) {
+            return;
+        }
+
+        // keep the bricks hit first on the way, several if the ball reaches them at the same time
+        float firstTime = SweptAabb.NO_HIT;
+        int firstHits = 0;
+        for (int i = 0; i < hits; i++) {
+            float time = SweptAabb.timeOfImpact(startX, startY, width, height, dx, dy, brickHits[i]);
+            if (time < firstTime - SIMULTANEOUS_HIT_TIME) {
+                firstTime = time;
+                firstHits = 0;
+            }
+            if (time != SweptAabb.NO_HIT && time <= firstTime + SIMULTANEOUS_HIT_TIME) {
+                Brick brick = brickHits[firstHits];
+                brickHits[firstHits++] = brickHits[i];
+                brickHits[i] = brick;
+            }
+        }
+
+        if (firstHits > 0) {
+            Vector2 normal = SweptAabb.impactNormal(startX, startY, width, height, dx, dy, brickHits[0]);
+            // only bounce if the ball is moving into the brick
+            if (ball.getVelocity().dot(normal) < 0) {
+                ball.bounce(normal);
+                Vector2 velocity = ball.getVelocity();
+                float remainingTime = (1 - firstTime) * deltaTime;
+                ball.transform().setTopLeftCornerX(startX + dx * firstTime + velocity.x() * remainingTime);
+                ball.transform().setTopLeftCornerY(startY + dy * firstTime + velocity.y() * remainingTime);
+            }
+            hits = firstHits;
+        } else {
+            // no brick entered during the step, fall back to the bricks the ball overlaps now
+            for (int i = 0; i < hits; i++) {
+                brickHits[i] = null;
+            }
+            float minX = topLeft.x();
+            float minY = topLeft.y();
+            hits = brickGrid.query(minX, minY, minX + width, minY + height, brickHits);
+            if (hits == 0) {
+                return;
+            }
+            Vector2 normal = BrickGrid.contactNormal(minX, minY, minX + width, minY + height, brickHits, 0, hits);
+            if (ball.getVelocity().dot(normal) < 0) {
+                ball.bounce(normal);
+            }
+        }
+        for (int i = 0; i < brickHits.length && brickHits[i] != null; i++) {
+            if (i < hits) {
+                brickHits[i].hit(ball);
+            }
+            brickHits[i] = null;
+        }
     }
 
     /**
@@ -396,39 +1199,70 @@ public class BrickerGameManager extends GameManager {
     }
 
     /**
-     * get a CollisionStrategy for bricks
-     * @return CollisionStrategy instance
+     * Adds a dynamic entity to the game objects and to the entity registry.
+     *
+     * @param entity the entity to add, with its tag already set
      */
-    public CollisionStrategy getCollisionStrategy() {
-        StrategyFactory strategyFactory = new StrategyFactory(this, bricksCount);
-        if (random.nextBoolean()){
-            return strategyFactory.buildStrategy(Constants.BASIC_COLLISION,Constants.STRATEGY_START_COUNTER);
-        } else {
-            int index = random.nextInt(Constants.BRICKS_STRATEGIES_NUM);
-            return strategyFactory.buildStrategy(index,Constants.STRATEGY_START_COUNTER);
-        }
+    private void addEntity(GameObject entity) {
+        gameObjects().addGameObject(entity);
+        entities.add(entity);
     }
 
     /**
-     * Selects a normal behavior strategy for a brick using the StrategyFactory.
+     * Removes a dynamic entity from the game objects and from the entity registry.
      *
-     * @param brickCount the Counter representing the number of remaining bricks.
-     * @return the selected CollisionStrategy for the brick.
+     * @param entity the entity to remove
      */
-    public CollisionStrategy selectNormalStrategyBehavior(Counter brickCount) {
-        StrategyFactory strategyFactory = new StrategyFactory(this, brickCount);
-        int index = random.nextInt(Constants.DOUBLE_BEHAVIOR_STRATEGY);
-        return strategyFactory.buildStrategy(index, Constants.STRATEGY_START_COUNTER);
+    private void removeEntity(GameObject entity) {
+        entities.remove(entity);
+        removeFromGame(entity, Layer.DEFAULT);
     }
 
     /**
+     * Removes an object from the game objects, emitting a {@link FlightEvents.EntityRemoval} event while
+     * recording. All the removals of the game go through here, except bricks dropped by the brick grid
+     * when no ball is near, which stay live in their cells.
+     *
+     * @param object The object to remove.
+     * @param layer  The layer of the object.
+     * @return true if the object was in the game objects.
+     */
+    private boolean removeFromGame(GameObject object, int layer) {
+        FlightEvents.EntityRemoval event = new FlightEvents.EntityRemoval();
+        event.begin();
+        boolean removed = gameObjects().removeGameObject(object, layer);
+        if (event.shouldCommit()) {
+            event.kind = object.getClass().getSimpleName();
+            event.layer = layer;
+            event.removed = removed;
+            event.commit();
+        }
+        return removed;
+    }
+
+    /**
+     * Removes an object from the game, and a brick from the brick grid as well.
      *
      * @param object object to ramove
      * @param layer object layer
      * @return true if removed object
      */
     public boolean removeGameObject(GameObject object, int layer) {
-        return gameObjects().removeGameObject(object,layer);
+        if (object instanceof Brick) {
+            Brick brick = (Brick) object;
+            if (chunkWindow != null) {
+                int row = brickGrid.rowOf(brick);
+                if (row >= 0) {
+                    chunkWindow.brickRemoved(row);
+                }
+            }
+            brickGrid.remove(brick);
+        }
+        boolean removed = removeFromGame(object, layer);
+        if (removed && object instanceof Brick) {
+            eventBus.publish(new GameEvents.BrickDestroyed(object));
+        }
+        return removed;
     }
 
     /**
@@ -436,10 +1270,10 @@ public class BrickerGameManager extends GameManager {
      * The paddle responds to user input for left and right movement.
      */
     private void initPaddle() {
-        Renderable paddleImage = imageReader.readImage(Constants.PADDLE_IMAGE_PATH, true);
-        GameObject paddle = new Paddle(PADDLE_POSITION, PADDLE_SIZE, paddleImage, inputListener, WINDOW_DIMENSIONS.x());
+        Renderable paddleImage = assetCache.readImage(Constants.PADDLE_IMAGE_PATH, true);
+        paddle = new Paddle(PADDLE_POSITION, PADDLE_SIZE, paddleImage, inputSource, WINDOW_DIMENSIONS.x());
         paddle.setTag(Constants.PADDLE_TAG_NAME);
-        gameObjects().addGameObject(paddle);
+        addEntity(paddle);
     }
 
     /**
@@ -448,17 +1282,18 @@ public class BrickerGameManager extends GameManager {
      */
     private void initBall() {
         // get renderables
-        ballImage = imageReader.readImage(Constants.BALL_IMAGE_PATH, true);
-        turboBallImage = imageReader.readImage(Constants.TURBO_BALL_PATH,true);
+        ballImage = assetCache.readImage(Constants.BALL_IMAGE_PATH, true);
+        turboBallImage = assetCache.readImage(Constants.TURBO_BALL_PATH,true);
         // get collision sound
-        Sound collisionSound = soundReader.readSound(Constants.BLOP_SOUND_PATH);
+        SoundMixer.MixedSound collisionSound = soundMixer.mix(assetCache.readSound(Constants.BLOP_SOUND_PATH));
         // create ball
         ball = new Ball(Vector2.ZERO, BALL_SIZE, ballImage, collisionSound);
         ball.setTag(Constants.BALL_TAG_NAME);
+        ball.setEventBus(eventBus, WINDOW_DIMENSIONS.y());
         // locate ball on board
-        ball.setCenter(windowController.getWindowDimensions().mult(0.5f));
+        ball.setCenter(WINDOW_DIMENSIONS.mult(0.5f));
         setBallVelocity();
-        gameObjects().addGameObject(ball);
+        addEntity(ball);
     }
 
     /**
@@ -499,20 +1334,54 @@ public class BrickerGameManager extends GameManager {
      * The background spans the entire window.
      */
     private void initBackground() {
-        Renderable bgImage = imageReader.readImage(Constants.BACKGROUND_IMAGE_PATH, false);
+        Renderable bgImage = assetCache.readImage(Constants.BACKGROUND_IMAGE_PATH, false);
         GameObject background = new GameObject(Vector2.ZERO, WINDOW_DIMENSIONS, bgImage);
         background.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         gameObjects().addGameObject(background, Layer.BACKGROUND);
     }
 
+    /**
+     * Writes the key state recorded in the current game to the file named by the bricker.record system
+     * property, along with the seed, brick layout and gameplay settings needed to replay it. A game played on
+     * a level file records the path and checksum of the file, so the replay loads the same level.
+     */
+    private synchronized void saveRecording() {
+        if (recorder == null) {
+            return;
+        }
+        Path path = Paths.get(System.getProperty(RECORD_PROPERTY));
+        try {
+            recorder.writeTo(path, gameSeed, numOfBricksRows, numOfBricksCols,
+                    levelLayout != null ? levelLayout.getPath() : null,
+                    levelLayout != null ? levelLayout.getChecksum() : 0, gameplaySettings());
+        } catch (IOException e) {
+            System.err.println("Failed to save the input recording to " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gathers the gameplay switches this JVM was started with, which a recorded game must be replayed with.
+     *
+     * @return The settings read from the bricker system properties.
+     */
+    public static GameplaySettings gameplaySettings() {
+        StrategyWeights weights = StrategyWeights.forLevel(LEVEL);
+        return new GameplaySettings(ENDLESS_MODE, ENDLESS_CHUNK_ROWS, MULTIBALL_MODE, MULTIBALL_CAPACITY, LEVEL,
+                weights.getBrickWeights(), weights.getNormalWeights(), weights.getNestedWeights());
+    }
+
     /**
      * The entry point for the Bricker game. Allows optional customization of brick layout via command-line arguments.
      *
-     * @param args Optional command-line arguments: [number of rows, number of columns].
+     * @param args Optional command-line arguments: [number of rows, number of columns] or [level file].
+     * @throws IOException if the level file cannot be read.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         BrickerGameManager brickerGameManager;
-        if (args.length == 2) {
+        if (args.length == 1) {
+            brickerGameManager = new BrickerGameManager(Constants.WINDOW_TITLE, WINDOW_DIMENSIONS,
+                    LevelLayout.load(Paths.get(args[0])));
+        } else if (args.length == 2) {
             brickerGameManager = new BrickerGameManager(Constants.WINDOW_TITLE,
                                 WINDOW_DIMENSIONS, Integer.parseInt(args[1]), Integer.parseInt(args[0]));
         } else {
@@ -521,4 +1390,36 @@ public class BrickerGameManager extends GameManager {
         brickerGameManager.run();
     }
 
+    /**
+     * Creates the brick game objects of the cells the brick grid materialises, and removes them again.
+     * Materialised bricks have no renderable, since the whole field is drawn by the BrickFieldRenderable.
+     */
+    private class BrickMaterializer implements BrickGrid.Materializer {
+
+        /**
+         * Creates the brick of a cell, with the strategy shared by all bricks, and adds it to the game.
+         *
+         * @param row        The row of the cell.
+         * @param col        The column of the cell.
+         * @param topLeft    The top left corner of the cell.
+         * @param strategyId The identifier, from Constants, of the strategy of the cell.
+         * @return The brick of the cell.
+         */
+        @Override
+        public Brick materialize(int row, int col, Vector2 topLeft, int strategyId) {
+            Brick brick = new Brick(topLeft, brickSize, null, brickStrategy);
+            gameObjects().addGameObject(brick, Layer.STATIC_OBJECTS);
+            return brick;
+        }
+
+        /**
+         * Removes the brick of a cell from the game, leaving the cell live.
+         *
+         * @param brick The brick to remove.
+         */
+        @Override
+        public void dematerialize(Brick brick) {
+            gameObjects().removeGameObject(brick, Layer.STATIC_OBJECTS);
+        }
+    }
 }
@@ -0,0 +1,51 @@
+package bricker.main;
+
+import danogl.gui.ImageReader;
+import danogl.gui.Sound;
+import danogl.gui.SoundReader;
+import danogl.gui.rendering.Renderable;
+
+/**
+ * An AssetProvider that reads the game assets with danogl's image and sound readers.
+ *
+ * @author fanteo12
+ */
+class DanoglAssetProvider implements AssetProvider {
+
+    private final ImageReader imageReader; // Reads images for rendering
+    private final SoundReader soundReader; // Reads sound files
+
+    /**
+     * Constructs a DanoglAssetProvider instance.
+     *
+     * @param imageReader The image reader given to the game by danogl.
+     * @param soundReader The sound reader given to the game by danogl.
+     */
+    DanoglAssetProvider(ImageReader imageReader, SoundReader soundReader) {
+        this.imageReader = imageReader;
+        this.soundReader = soundReader;
+    }
+
+    /**
+     * Reads an image with the danogl image reader.
+     *
+     * @param path                         The path of the image file.
+     * @param useTopLeftPixelAsTransparent Whether the color of the top left pixel is treated as transparent.
+     * @return The renderable of the image.
+     */
+    @Override
+    public Renderable readImage(String path, boolean useTopLeftPixelAsTransparent) {
+        return imageReader.readImage(path, useTopLeftPixelAsTransparent);
+    }
+
+    /**
+     * Reads a sound with the danogl sound reader.
+     *
+     * @param path The path of the sound file.
+     * @return The sound.
+     */
+    @Override
+    public Sound readSound(String path) {
+        return soundReader.readSound(path);
+    }
+}
@@ -0,0 +1,84 @@
+package bricker.main;
+
+/**
+ * The phases of a BrickerGameManager frame update, in the order they run. A frame update runs the step
+ * phases once for every fixed step of the frame time, and then the remaining phases once for the frame.
+ *
+ * @author fanteo12
+ */
+public enum FramePhase {
+
+    /**
+     * danogl's update of all game objects, including movement and collision handling.
+     */
+    PHYSICS(true),
+
+    /**
+     * Bounces the ball and the pucks off the paddles they moved through within a single step.
+     */
+    PADDLE_SWEEP(true),
+
+    /**
+     * Materialises the bricks near the ball and the pucks, and drops the bricks no ball is near anymore.
+     */
+    BRICK_MATERIALIZATION(true),
+
+    /**
+     * Finds and handles the collisions of the ball and the pucks with bricks, through the brick grid.
+     */
+    BRICK_COLLISIONS(true),
+
+    /**
+     * Steps the pucks of the multiball system, when multiball mode is on.
+     */
+    MULTIBALL(true),
+
+    /**
+     * Advances the endless brick field once its bottom chunk is cleared, when endless mode is on.
+     */
+    ENDLESS_FIELD(true),
+
+    /**
+     * Dispatches the game events published during the step: lost balls, expired temporary paddles and turbos,
+     * caught hearts and destroyed bricks.
+     */
+    EVENTS(true),
+
+    /**
+     * Removes pucks that fell below the window.
+     */
+    PUCKS_FALL(true),
+
+    /**
+     * Removes extra hearts that fell below the window.
+     */
+    HEART_FALL(true),
+
+    /**
+     * Checks the win conditions. The game is lost on the BallLost event of the last strike.
+     */
+    GAME_END(false),
+
+    /**
+     * Starts the collision sounds requested during the frame, through the sound mixer.
+     */
+    AUDIO(false);
+
+    private final boolean stepPhase; // Runs once per fixed step rather than once per frame
+
+    /**
+     * Constructs a FramePhase.
+     *
+     * @param stepPhase true if the phase runs once per fixed step, false if it runs once per frame.
+     */
+    FramePhase(boolean stepPhase) {
+        this.stepPhase = stepPhase;
+    }
+
+    /**
+     * @return true if the phase runs once per fixed step, false if it runs once per frame.
+     */
+    public boolean isStepPhase() {
+        return stepPhase;
+    }
+}
@@ -0,0 +1,142 @@
+package bricker.main;
+
+import bricker.utils.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Records the time of every {@link FramePhase} and of whole frame updates in latency histograms.
+ * The histograms cover the current interval: every interval they are appended to a report file, if one
+ * is set, and then cleared, so each block of the report shows the frames of a single interval and a slow
+ * phase is not hidden by the frames before it. The histograms of the current interval can also be read
+ * at any time.
+ *
+ * @author fanteo12
+ */
+public class FrameProfiler {
+
+    private static final FramePhase[] PHASES = FramePhase.values();
+    private static final String FRAME_NAME = "FRAME"; // Name of the whole frame row in the report
+    private static final double NANOS_IN_MICRO = 1e3;
+    private static final double[] REPORTED_PERCENTILES = {50, 90, 99, 99.9};
+    private static final String HEADER_FORMAT = "%-22s %8s %10s %10s %10s %10s %10s %10s%n";
+    private static final String ROW_FORMAT = "%-22s %8d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n";
+
+    private final LatencyHistogram[] phaseHistograms = new LatencyHistogram[PHASES.length];
+    private final LatencyHistogram frameHistogram = new LatencyHistogram();
+    private final long intervalNanos; // Length of an interval
+    private final Path reportPath; // The file the intervals are appended to, or null to keep them in memory
+    private long intervalStart; // System.nanoTime() at the start of the current interval
+
+    /**
+     * Constructs a FrameProfiler instance.
+     *
+     * @param intervalNanos Length of an interval, in nanoseconds.
+     * @param reportPath    The file the intervals are appended to, or null to only clear the histograms.
+     */
+    public FrameProfiler(long intervalNanos, Path reportPath) {
+        this.intervalNanos = intervalNanos;
+        this.reportPath = reportPath;
+        for (int i = 0; i < phaseHistograms.length; i++) {
+            phaseHistograms[i] = new LatencyHistogram();
+        }
+        this.intervalStart = System.nanoTime();
+    }
+
+    /**
+     * Records the time of a single run of a phase.
+     *
+     * @param phase The phase that ran.
+     * @param nanos The time it took, in nanoseconds.
+     */
+    public void recordPhase(FramePhase phase, long nanos) {
+        phaseHistograms[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * Records the time of a whole frame update, and reports the interval if it is over.
+     *
+     * @param nanos The time the update took, in nanoseconds.
+     */
+    public void recordFrame(long nanos) {
+        frameHistogram.record(nanos);
+        long now = System.nanoTime();
+        if (now - intervalStart >= intervalNanos) {
+            endInterval();
+            intervalStart = now;
+        }
+    }
+
+    /**
+     * @param phase A frame phase.
+     * @return The histogram of the times of the phase in the current interval, in nanoseconds.
+     */
+    public LatencyHistogram getHistogram(FramePhase phase) {
+        return phaseHistograms[phase.ordinal()];
+    }
+
+    /**
+     * @return The histogram of the times of whole frame updates in the current interval, in nanoseconds.
+     */
+    public LatencyHistogram getFrameHistogram() {
+        return frameHistogram;
+    }
+
+    /**
+     * Appends the current interval to the report file, if one is set, and clears the histograms.
+     */
+    public void endInterval() {
+        if (reportPath != null) {
+            try (Writer writer = Files.newBufferedWriter(reportPath, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                PrintWriter out = new PrintWriter(writer);
+                printReport(out);
+                out.flush();
+            } catch (IOException e) {
+                System.err.println("Failed to write the frame times to " + reportPath + ": " + e.getMessage());
+            }
+        }
+        frameHistogram.reset();
+        for (LatencyHistogram histogram : phaseHistograms) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Prints the count, mean, percentiles and maximum of every phase and of whole frames, in microseconds.
+     *
+     * @param out The writer to print to.
+     */
+    public void printReport(PrintWriter out) {
+        out.printf("# %s%n", Instant.now());
+        out.printf(HEADER_FORMAT, "phase", "count", "mean us", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us");
+        for (FramePhase phase : PHASES) {
+            printRow(out, phase.name(), phaseHistograms[phase.ordinal()]);
+        }
+        printRow(out, FRAME_NAME, frameHistogram);
+        out.println();
+    }
+
+    /**
+     * Prints a single row of the report.
+     *
+     * @param out       The writer to print to.
+     * @param name      The name of the row.
+     * @param histogram The times of the row, in nanoseconds.
+     */
+    private static void printRow(PrintWriter out, String name, LatencyHistogram histogram) {
+        out.printf(ROW_FORMAT, name, histogram.getTotalCount(), histogram.getMean() / NANOS_IN_MICRO,
+                histogram.getValueAtPercentile(REPORTED_PERCENTILES[0]) / NANOS_IN_MICRO,
+                histogram.getValueAtPercentile(REPORTED_PERCENTILES[1]) / NANOS_IN_MICRO,
+                histogram.getValueAtPercentile(REPORTED_PERCENTILES[2]) / NANOS_IN_MICRO,
+                histogram.getValueAtPercentile(REPORTED_PERCENTILES[3]) / NANOS_IN_MICRO,
+                histogram.getMax() / NANOS_IN_MICRO);
+    }
+}
@@ -0,0 +1,17 @@
+package bricker.main;
+
+/**
+ * Handles the end of a Bricker game, once it has been won or lost.
+ *
+ * @author fanteo12
+ */
+@FunctionalInterface
+public interface GameEndHandler {
+
+    /**
+     * Called when the game has been won or lost.
+     *
+     * @param prompt The prompt describing the result, followed by the play again question.
+     */
+    void onGameEnd(String prompt);
+}
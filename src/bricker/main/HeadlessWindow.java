@@ -0,0 +1,120 @@
+package bricker.main;
+
+import bricker.utils.InputSource;
+import danogl.gui.UserInputListener;
+import danogl.gui.WindowController;
+import danogl.util.Vector2;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Stands in for danogl's window when the game runs headless.
+ * danogl creates the game object collection in GameManager.initializeGame, which takes a window controller and
+ * an input listener. The stand-ins are dynamic proxies, so they implement whatever methods danogl's interfaces
+ * declare: the window reports its dimensions, answers no to every dialog and ignores every other request, and
+ * the input listener reads the key state of an {@link InputSource}.
+ *
+ * @author fanteo12
+ */
+final class HeadlessWindow {
+
+    private static final String WINDOW_DIMENSIONS_METHOD = "getWindowDimensions";
+    private static final String KEY_PRESSED_METHOD = "isKeyPressed";
+
+    /**
+     * Prevents instantiation, the class only creates the stand-ins.
+     */
+    private HeadlessWindow() {
+    }
+
+    /**
+     * Creates a window controller for a window that is never shown.
+     *
+     * @param windowDimensions The dimensions the window reports.
+     * @return The window controller.
+     */
+    static WindowController windowController(Vector2 windowDimensions) {
+        return proxy(WindowController.class, (proxy, method, args) ->
+                WINDOW_DIMENSIONS_METHOD.equals(method.getName())
+                        ? windowDimensions : defaultResult(proxy, method, args));
+    }
+
+    /**
+     * Creates an input listener that reads an input source.
+     *
+     * @param inputSource The key state to report.
+     * @return The input listener.
+     */
+    static UserInputListener inputListener(InputSource inputSource) {
+        return proxy(UserInputListener.class, (proxy, method, args) ->
+                KEY_PRESSED_METHOD.equals(method.getName()) && args != null && args.length == 1
+                        ? inputSource.isKeyPressed((Integer) args[0]) : defaultResult(proxy, method, args));
+    }
+
+    /**
+     * Creates a proxy of an interface.
+     *
+     * @param type    The interface.
+     * @param handler Answers the calls to the proxy.
+     * @param <T>     The type of the interface.
+     * @return The proxy.
+     */
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * Answers a call that the stand-ins do not implement: the methods of Object behave as for any object,
+     * methods returning a set return an empty set, and every other method returns zero, false or null.
+     *
+     * @param proxy  The proxy that was called.
+     * @param method The called method.
+     * @param args   The arguments of the call, or null if there are none.
+     * @return The result of the call.
+     */
+    private static Object defaultResult(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return args != null && args.length == 1 && proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return HeadlessWindow.class.getSimpleName();
+            default:
+                break;
+        }
+        Class<?> type = method.getReturnType();
+        if (type == Set.class) {
+            return Collections.emptySet();
+        }
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,250 @@
+package bricker.main;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single image holding several sprites, each drawn through a renderable of its own region.
+ * The sprites are packed at startup into rows ("shelves") of an image whose width is a power of two,
+ * tallest sprites first, with a transparent gap around each sprite so scaled drawing does not bleed
+ * the pixels of its neighbours. Drawing every sprite from the same image saves the memory of the
+ * separate images and lets the renderer keep one source image for a whole frame of sprites.
+ *
+ * @author fanteo12
+ */
+public class TextureAtlas {
+
+    private static final int GAP = 1; // Transparent pixels between neighbouring sprites
+    private static final int MIN_WIDTH = 64; // Smallest width of the atlas image
+
+    private final BufferedImage image; // The packed sprites
+    private final Map<String, Region> regions; // The region of each sprite by its key
+
+    /**
+     * Constructs a TextureAtlas instance.
+     *
+     * @param image   The packed sprites.
+     * @param regions The region of each sprite by its key.
+     */
+    private TextureAtlas(BufferedImage image, Map<String, Region> regions) {
+        this.image = image;
+        this.regions = regions;
+    }
+
+    /**
+     * Packs sprites into a new atlas.
+     *
+     * @param sprites The images to pack by their keys. Must not be empty.
+     * @return The atlas holding every sprite.
+     */
+    public static TextureAtlas pack(Map<String, Image> sprites) {
+        List<Map.Entry<String, Image>> entries = new ArrayList<>(sprites.entrySet());
+        entries.sort((first, second) -> Integer.compare(second.getValue().getHeight(null),
+                first.getValue().getHeight(null)));
+        int width = atlasWidth(entries);
+
+        // place the sprites in shelves, starting a new shelf when the current one is full
+        int[] xs = new int[entries.size()];
+        int[] ys = new int[entries.size()];
+        int x = GAP;
+        int y = GAP;
+        int shelfHeight = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            Image sprite = entries.get(i).getValue();
+            if (x + sprite.getWidth(null) + GAP > width) {
+                x = GAP;
+                y += shelfHeight + GAP;
+                shelfHeight = 0;
+            }
+            xs[i] = x;
+            ys[i] = y;
+            x += sprite.getWidth(null) + GAP;
+            shelfHeight = Math.max(shelfHeight, sprite.getHeight(null));
+        }
+
+        BufferedImage image = new BufferedImage(width, y + shelfHeight + GAP, BufferedImage.TYPE_INT_ARGB);
+        Map<String, Region> regions = new LinkedHashMap<>();
+        TextureAtlas atlas = new TextureAtlas(image, Collections.unmodifiableMap(regions));
+        Graphics2D graphics = image.createGraphics();
+        try {
+            for (int i = 0; i < entries.size(); i++) {
+                Image sprite = entries.get(i).getValue();
+                graphics.drawImage(sprite, xs[i], ys[i], null);
+                regions.put(entries.get(i).getKey(), new Region(atlas, xs[i], ys[i],
+                        sprite.getWidth(null), sprite.getHeight(null)));
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return atlas;
+    }
+
+    /**
+     * Picks the width of the atlas: the smallest power of two that fits the widest sprite and is at
+     * least the side of a square holding all of the sprites.
+     *
+     * @param entries The sprites to pack.
+     * @return The width of the atlas image.
+     */
+    private static int atlasWidth(List<Map.Entry<String, Image>> entries) {
+        long area = 0;
+        int widest = 0;
+        for (Map.Entry<String, Image> entry : entries) {
+            int spriteWidth = entry.getValue().getWidth(null) + GAP;
+            int spriteHeight = entry.getValue().getHeight(null) + GAP;
+            area += (long) spriteWidth * spriteHeight;
+            widest = Math.max(widest, spriteWidth + GAP);
+        }
+        int width = MIN_WIDTH;
+        while (width < widest || (long) width * width < area) {
+            width *= 2;
+        }
+        return width;
+    }
+
+    /**
+     * Gets the region of a sprite.
+     *
+     * @param key The key the sprite was packed with.
+     * @return The renderable of the sprite's region, or null if no sprite was packed with the key.
+     */
+    public Region getRegion(String key) {
+        return regions.get(key);
+    }
+
+    /**
+     * @return The region of every sprite by its key.
+     */
+    public Map<String, Region> getRegions() {
+        return regions;
+    }
+
+    /**
+     * @return The image holding the packed sprites.
+     */
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    /**
+     * Estimates the memory of the atlas image.
+     *
+     * @return The size of its pixels in bytes.
+     */
+    public long getBytes() {
+        return (long) image.getWidth() * image.getHeight() * Integer.BYTES;
+    }
+
+    /**
+     * A renderable drawing one sprite of an atlas.
+     */
+    public static class Region implements Renderable {
+
+        private final TextureAtlas atlas; // The atlas holding the sprite
+        private final int x; // Left of the sprite in the atlas image
+        private final int y; // Top of the sprite in the atlas image
+        private final int width;
+        private final int height;
+
+        /**
+         * Constructs a Region instance.
+         *
+         * @param atlas  The atlas holding the sprite.
+         * @param x      Left of the sprite in the atlas image.
+         * @param y      Top of the sprite in the atlas image.
+         * @param width  Width of the sprite.
+         * @param height Height of the sprite.
+         */
+        Region(TextureAtlas atlas, int x, int y, int width, int height) {
+            this.atlas = atlas;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * Draws the sprite scaled to the given rectangle.
+         *
+         * @param g                       The graphics context to draw on.
+         * @param topLeftCorner           The top left corner of the rectangle.
+         * @param dimensions              The size of the rectangle.
+         * @param degreesCounterClockwise The rotation of the sprite around the center of the rectangle.
+         * @param isFlippedHorizontally   Whether the sprite is mirrored left to right.
+         * @param isFlippedVertically     Whether the sprite is mirrored top to bottom.
+         * @param opaqueness              The opacity of the sprite, between 0 and 1.
+         */
+        @Override
+        public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+                           double degreesCounterClockwise, boolean isFlippedHorizontally,
+                           boolean isFlippedVertically, double opaqueness) {
+            boolean transformed = degreesCounterClockwise != 0 || isFlippedHorizontally || isFlippedVertically;
+            boolean translucent = opaqueness < 1;
+            if (!transformed && !translucent) {
+                draw(g, Math.round(topLeftCorner.x()), Math.round(topLeftCorner.y()),
+                        Math.round(dimensions.x()), Math.round(dimensions.y()));
+                return;
+            }
+            AffineTransform oldTransform = g.getTransform();
+            Composite oldComposite = g.getComposite();
+            try {
+                if (translucent) {
+                    g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER,
+                            (float) Math.max(0, opaqueness)));
+                }
+                // draw around the center of the rectangle, so rotation and flips keep it in place
+                float halfWidth = dimensions.x() / 2;
+                float halfHeight = dimensions.y() / 2;
+                g.translate(topLeftCorner.x() + halfWidth, topLeftCorner.y() + halfHeight);
+                g.rotate(-Math.toRadians(degreesCounterClockwise));
+                g.scale(isFlippedHorizontally ? -1 : 1, isFlippedVertically ? -1 : 1);
+                draw(g, Math.round(-halfWidth), Math.round(-halfHeight),
+                        Math.round(dimensions.x()), Math.round(dimensions.y()));
+            } finally {
+                g.setTransform(oldTransform);
+                g.setComposite(oldComposite);
+            }
+        }
+
+        /**
+         * Draws the sprite's pixels of the atlas image into a rectangle, with no rotation, flip or opacity,
+         * and without allocating.
+         *
+         * @param g      The graphics context to draw on.
+         * @param left   Left of the rectangle.
+         * @param top    Top of the rectangle.
+         * @param width  Width of the rectangle.
+         * @param height Height of the rectangle.
+         */
+        public void draw(Graphics2D g, int left, int top, int width, int height) {
+            g.drawImage(atlas.image, left, top, left + width, top + height,
+                    x, y, x + this.width, y + this.height, null);
+        }
+
+        /**
+         * @return The width of the sprite in pixels.
+         */
+        public int width() {
+            return width;
+        }
+
+        /**
+         * @return The height of the sprite in pixels.
+         */
+        public int height() {
+            return height;
+        }
+    }
+}
@@ -0,0 +1,642 @@
+package bricker.physics;
+
+import bricker.gameObjects.Brick;
+import danogl.util.Vector2;
+
+import java.util.Arrays;
+
+/**
+ * A uniform grid index of the bricks in the Bricker game, keyed by row and column.
+ * Bricks are laid out on a regular grid, so the cells overlapped by an axis aligned box can be computed
+ * directly from its coordinates. Finding the bricks hit by a ball or a puck therefore costs the same
+ * however many bricks the grid holds.
+ * The grid keeps the state of every cell in a bitset of live cells and an array of strategy ids, a little
+ * over one byte per cell. Brick game objects are only materialised for the live cells near the balls,
+ * through a {@link Materializer}, and dropped again once no ball is near them, so a level with millions of
+ * cells holds only a few bricks as game objects at any time.
+ *
+ * @author fanteo12
+ */
+public class BrickGrid {
+
+    /**
+     * Creates and drops the brick game objects of live cells.
+     */
+    public interface Materializer {
+
+        /**
+         * Creates the brick of a live cell and adds it to the game.
+         *
+         * @param row        The row of the cell.
+         * @param col        The column of the cell.
+         * @param topLeft    The top left corner of the cell.
+         * @param strategyId The identifier, from Constants, of the strategy of the cell.
+         * @return The brick of the cell.
+         */
+        Brick materialize(int row, int col, Vector2 topLeft, int strategyId);
+
+        /**
+         * Removes the brick of a cell from the game. The cell stays live, and its brick may be
+         * materialised again later.
+         *
+         * @param brick The brick to remove.
+         */
+        void dematerialize(Brick brick);
+    }
+
+    /**
+     * Listens to the changes of the live cells of a grid, for example to keep a drawing of the field.
+     */
+    public interface CellListener {
+
+        /**
+         * Called when the brick of a single cell is removed.
+         *
+         * @param cell The row major index of the cell.
+         */
+        void cellRemoved(int cell);
+
+        /**
+         * Called when bricks are placed or moved, which may change any cell.
+         */
+        void cellsChanged();
+    }
+
+    private static final int INITIAL_MATERIALIZED = 64;
+
+    private final int rows;
+    private final int cols;
+    private final float originX; // Left edge of the first column
+    private final float originY; // Top edge of the first row
+    private final float brickWidth;
+    private final float brickHeight;
+    private final float pitchX; // Distance between the left edges of adjacent columns
+    private final float pitchY; // Distance between the top edges of adjacent rows
+    private final Materializer materializer;
+    private CellListener cellListener; // Null if no one listens
+    private final long[] alive; // Row major, a set bit for each cell holding a brick
+    private final byte[] strategyIds; // Row major, the strategy identifier of each cell's brick
+    private final Brick[] bricks; // Row major, the materialised bricks, null elsewhere
+    private int[] materializedCells = new int[INITIAL_MATERIALIZED]; // May hold cells since removed
+    private int materializedCount;
+    private final int[] touchedPasses; // Row major, the last materialisation pass in which a ball was near
+    private int pass; // The current materialisation pass, never 0 so fresh cells count as untouched
+    private int size;
+
+    /**
+     * Constructs an empty BrickGrid.
+     *
+     * @param rows         Number of rows of bricks.
+     * @param cols         Number of bricks in each row.
+     * @param origin       The top left corner of the brick at row 0 and column 0.
+     * @param brickWidth   The width of a brick.
+     * @param brickHeight  The height of a brick.
+     * @param padding      The gap between adjacent bricks, both horizontally and vertically.
+     * @param materializer Creates and drops the brick game objects of live cells.
+     */
+    public BrickGrid(int rows, int cols, Vector2 origin, float brickWidth, float brickHeight, float padding,
+                     Materializer materializer) {
+        this.rows = rows;
+        this.cols = cols;
+        this.originX = origin.x();
+        this.originY = origin.y();
+        this.brickWidth = brickWidth;
+        this.brickHeight = brickHeight;
+        this.pitchX = brickWidth + padding;
+        this.pitchY = brickHeight + padding;
+        this.materializer = materializer;
+        int cells = Math.multiplyExact(rows, cols);
+        this.alive = new long[(cells + Long.SIZE - 1) / Long.SIZE];
+        this.strategyIds = new byte[cells];
+        this.bricks = new Brick[cells];
+        this.touchedPasses = new int[cells];
+    }
+
+    /**
+     * Sets the listener told about the changes of the live cells.
+     *
+     * @param cellListener The listener, or null to stop telling.
+     */
+    public void setCellListener(CellListener cellListener) {
+        this.cellListener = cellListener;
+    }
+
+    /**
+     * Computes the top left corner of a cell.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return The top left corner of the brick placed in the cell.
+     */
+    public Vector2 cellTopLeft(int row, int col) {
+        return new Vector2(originX + col * pitchX, originY + row * pitchY);
+    }
+
+    /**
+     * Places a brick in a cell. The brick is materialised once a ball comes near it.
+     *
+     * @param row        The row of the cell.
+     * @param col        The column of the cell.
+     * @param strategyId The identifier, from Constants, of the strategy of the brick.
+     */
+    public void add(int row, int col, int strategyId) {
+        int cell = row * cols + col;
+        if (!isAlive(cell)) {
+            alive[cell >>> 6] |= 1L << cell;
+            size++;
+        }
+        strategyIds[cell] = (byte) strategyId;
+        if (cellListener != null) {
+            cellListener.cellsChanged();
+        }
+    }
+
+    /**
+     * Checks whether a cell holds a brick, materialised or not.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return true if the cell holds a brick.
+     */
+    public boolean isAlive(int row, int col) {
+        return isAlive(row * cols + col);
+    }
+
+    /**
+     * Gets the identifier of the strategy of a cell's brick. Plain strategies are shared by all
+     * bricks, so the identifier and the cell are all that describe a plain brick.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return The identifier, from Constants, of the strategy of the brick placed in the cell.
+     */
+    public int getStrategyId(int row, int col) {
+        return strategyIds[row * cols + col] & 0xFF;
+    }
+
+    /**
+     * Gets the materialised brick of a cell.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return The brick of the cell, or null if the cell is empty or its brick is not materialised.
+     */
+    public Brick getBrick(int row, int col) {
+        return bricks[row * cols + col];
+    }
+
+    /**
+     * Finds the row of a materialised brick in the grid.
+     *
+     * @param brick The brick to find.
+     * @return The row of the brick, or -1 if the brick is not in the grid.
+     */
+    public int rowOf(Brick brick) {
+        int index = indexOf(brick);
+        return index < 0 ? -1 : index / cols;
+    }
+
+    /**
+     * Finds the cell of a materialised brick in the grid.
+     *
+     * @param brick The brick to find.
+     * @return The row major index of the brick's cell, or -1 if the brick is not in the grid.
+     */
+    public int cellOf(Brick brick) {
+        return indexOf(brick);
+    }
+
+    /**
+     * Removes a materialised brick from the grid, leaving its cell empty.
+     *
+     * @param brick The brick to remove.
+     * @return true if the brick was in the grid, false otherwise.
+     */
+    public boolean remove(Brick brick) {
+        int index = indexOf(brick);
+        if (index < 0) {
+            return false;
+        }
+        bricks[index] = null;
+        alive[index >>> 6] &= ~(1L << index);
+        size--;
+        if (cellListener != null) {
+            cellListener.cellRemoved(index);
+        }
+        return true;
+    }
+
+    /**
+     * Materialises the brick of a cell, if the cell is live and its brick is not materialised yet.
+     *
+     * @param cell The row major index of the cell.
+     * @return The brick of the cell, or null if the cell is empty.
+     */
+    public Brick materialize(int cell) {
+        Brick brick = bricks[cell];
+        if (brick != null || !isAlive(cell)) {
+            return brick;
+        }
+        int row = cell / cols;
+        int col = cell - row * cols;
+        brick = materializer.materialize(row, col, cellTopLeft(row, col), strategyIds[cell] & 0xFF);
+        bricks[cell] = brick;
+        if (materializedCount == materializedCells.length) {
+            materializedCells = Arrays.copyOf(materializedCells, materializedCount * 2);
+        }
+        materializedCells[materializedCount++] = cell;
+        return brick;
+    }
+
+    /**
+     * Starts a materialisation pass. Each ball is then reported with {@link #materializeAround}, and
+     * {@link #endMaterialization} drops the bricks no ball came near.
+     */
+    public void beginMaterialization() {
+        if (++pass == 0) {
+            // The pass number wrapped around, forget the old passes so none of them matches a new one
+            Arrays.fill(touchedPasses, 0);
+            pass = 1;
+        }
+    }
+
+    /**
+     * Materialises the bricks of the live cells overlapped by a box around a ball, and marks the cells
+     * so their bricks are kept at the end of the pass.
+     *
+     * @param minX The left edge of the box.
+     * @param minY The top edge of the box.
+     * @param maxX The right edge of the box.
+     * @param maxY The bottom edge of the box.
+     */
+    public void materializeAround(float minX, float minY, float maxX, float maxY) {
+        int firstCol = Math.max(0, (int) Math.floor((minX - originX) / pitchX));
+        int lastCol = Math.min(cols - 1, (int) Math.floor((maxX - originX) / pitchX));
+        int firstRow = Math.max(0, (int) Math.floor((minY - originY) / pitchY));
+        int lastRow = Math.min(rows - 1, (int) Math.floor((maxY - originY) / pitchY));
+        for (int row = firstRow; row <= lastRow; row++) {
+            float cellY = originY + row * pitchY;
+            if (maxY <= cellY || minY >= cellY + brickHeight) {
+                continue; // The box is in the padding between rows
+            }
+            for (int col = firstCol; col <= lastCol; col++) {
+                float cellX = originX + col * pitchX;
+                if (maxX > cellX && minX < cellX + brickWidth) {
+                    int cell = row * cols + col;
+                    touchedPasses[cell] = pass;
+                    materialize(cell);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ends a materialisation pass, dropping the materialised bricks whose cells no ball's box marked.
+     */
+    public void endMaterialization() {
+        int kept = 0;
+        for (int i = 0; i < materializedCount; i++) {
+            int cell = materializedCells[i];
+            Brick brick = bricks[cell];
+            if (brick == null) {
+                continue; // removed since it was materialised
+            }
+            if (touchedPasses[cell] == pass) {
+                materializedCells[kept++] = cell;
+            } else {
+                bricks[cell] = null;
+                materializer.dematerialize(brick);
+            }
+        }
+        materializedCount = kept;
+    }
+
+    /**
+     * Drops all the materialised bricks. Their cells stay live.
+     */
+    public void dematerializeAll() {
+        for (int i = 0; i < materializedCount; i++) {
+            int cell = materializedCells[i];
+            Brick brick = bricks[cell];
+            if (brick != null) {
+                bricks[cell] = null;
+                materializer.dematerialize(brick);
+            }
+        }
+        materializedCount = 0;
+    }
+
+    /**
+     * @return The number of materialised bricks.
+     */
+    public int getMaterializedCount() {
+        int count = 0;
+        for (int i = 0; i < materializedCount; i++) {
+            if (bricks[materializedCells[i]] != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Moves every brick down by a number of rows, leaving the top rows empty. All bricks must be
+     * dematerialised first, see {@link #dematerializeAll()}.
+     *
+     * @param numOfRows The number of rows to move the bricks by.
+     * @throws IllegalStateException if one of the bottom rows, which would be dropped, holds a brick,
+     *                               or if a brick is still materialised.
+     */
+    public void shiftDown(int numOfRows) {
+        int shift = Math.min(numOfRows, rows) * cols;
+        int cells = strategyIds.length;
+        if (getMaterializedCount() > 0) {
+            throw new IllegalStateException("Cannot shift materialised bricks");
+        }
+        if (nextAlive(cells - shift) >= 0) {
+            throw new IllegalStateException("Cannot shift a brick out of the grid");
+        }
+        // move the bits up by shift, from the highest word down
+        int wordShift = shift >>> 6;
+        int bitShift = shift & (Long.SIZE - 1);
+        for (int word = alive.length - 1; word >= 0; word--) {
+            int source = word - wordShift;
+            long value = 0;
+            if (source >= 0) {
+                value = alive[source] << bitShift;
+                if (bitShift != 0 && source > 0) {
+                    value |= alive[source - 1] >>> (Long.SIZE - bitShift);
+                }
+            }
+            alive[word] = value;
+        }
+        System.arraycopy(strategyIds, 0, strategyIds, shift, cells - shift);
+        Arrays.fill(strategyIds, 0, shift, (byte) 0);
+        if (cellListener != null) {
+            cellListener.cellsChanged();
+        }
+    }
+
+    /**
+     * Finds the next live cell.
+     *
+     * @param fromCell The row major index of the first cell to check.
+     * @return The row major index of the first live cell at or after fromCell, or -1 if there is none.
+     */
+    public int nextAlive(int fromCell) {
+        int cells = strategyIds.length;
+        if (fromCell >= cells) {
+            return -1;
+        }
+        int word = fromCell >>> 6;
+        long bits = alive[word] & (-1L << fromCell);
+        while (true) {
+            if (bits != 0) {
+                int cell = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                return cell < cells ? cell : -1;
+            }
+            if (++word == alive.length) {
+                return -1;
+            }
+            bits = alive[word];
+        }
+    }
+
+    /**
+     * @param cell The row major index of a cell.
+     * @return The left edge of the cell.
+     */
+    public float cellLeft(int cell) {
+        return originX + (cell % cols) * pitchX;
+    }
+
+    /**
+     * @param cell The row major index of a cell.
+     * @return The top edge of the cell.
+     */
+    public float cellTop(int cell) {
+        return originY + (cell / cols) * pitchY;
+    }
+
+    /**
+     * @return The width of a brick.
+     */
+    public float getBrickWidth() {
+        return brickWidth;
+    }
+
+    /**
+     * @return The height of a brick.
+     */
+    public float getBrickHeight() {
+        return brickHeight;
+    }
+
+    /**
+     * @return The number of rows of the grid.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return The number of columns of the grid.
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * @return The number of bricks in the grid, materialised or not.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Counts the cells covered by an axis aligned box, which bounds the number of bricks a query of the box
+     * can find.
+     *
+     * @param minX The left edge of the box.
+     * @param minY The top edge of the box.
+     * @param maxX The right edge of the box.
+     * @param maxY The bottom edge of the box.
+     * @return The number of cells in the rows and columns the box spans.
+     */
+    public int cellSpan(float minX, float minY, float maxX, float maxY) {
+        int firstCol = Math.max(0, (int) Math.floor((minX - originX) / pitchX));
+        int lastCol = Math.min(cols - 1, (int) Math.floor((maxX - originX) / pitchX));
+        int firstRow = Math.max(0, (int) Math.floor((minY - originY) / pitchY));
+        int lastRow = Math.min(rows - 1, (int) Math.floor((maxY - originY) / pitchY));
+        if (lastCol < firstCol || lastRow < firstRow) {
+            return 0;
+        }
+        return (lastCol - firstCol + 1) * (lastRow - firstRow + 1);
+    }
+
+    /**
+     * Finds the materialised bricks overlapped by an axis aligned box. Only the cells covered by the box
+     * are visited. The bricks near the balls are materialised by the materialisation pass of the step.
+     *
+     * @param minX The left edge of the box.
+     * @param minY The top edge of the box.
+     * @param maxX The right edge of the box.
+     * @param maxY The bottom edge of the box.
+     * @param out  The array to fill with the overlapped bricks. Bricks beyond its length are ignored, so it
+     *             should hold {@link #cellSpan} bricks.
+     * @return The number of bricks written to out.
+     */
+    public int query(float minX, float minY, float maxX, float maxY, Brick[] out) {
+        int firstCol = Math.max(0, (int) Math.floor((minX - originX) / pitchX));
+        int lastCol = Math.min(cols - 1, (int) Math.floor((maxX - originX) / pitchX));
+        int firstRow = Math.max(0, (int) Math.floor((minY - originY) / pitchY));
+        int lastRow = Math.min(rows - 1, (int) Math.floor((maxY - originY) / pitchY));
+
+        int count = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            float cellY = originY + row * pitchY;
+            if (maxY <= cellY || minY >= cellY + brickHeight) {
+                continue; // The box is in the padding between rows
+            }
+            for (int col = firstCol; col <= lastCol && count < out.length; col++) {
+                Brick brick = bricks[row * cols + col];
+                float cellX = originX + col * pitchX;
+                if (brick != null && maxX > cellX && minX < cellX + brickWidth) {
+                    out[count++] = brick;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the live cells overlapped by an axis aligned box, writing their indices to a slice of an array.
+     * Only the bitset is read, so several threads may query the grid at once while no cell changes, and
+     * no brick needs to be materialised.
+     *
+     * @param minX   The left edge of the box.
+     * @param minY   The top edge of the box.
+     * @param maxX   The right edge of the box.
+     * @param maxY   The bottom edge of the box.
+     * @param out    The array to write the row major indices of the overlapped cells to.
+     * @param offset The index of the first slot of the slice.
+     * @param length The length of the slice. Cells beyond it are ignored.
+     * @return The number of cells written to the slice.
+     */
+    public int queryCells(float minX, float minY, float maxX, float maxY, int[] out, int offset, int length) {
+        int firstCol = Math.max(0, (int) Math.floor((minX - originX) / pitchX));
+        int lastCol = Math.min(cols - 1, (int) Math.floor((maxX - originX) / pitchX));
+        int firstRow = Math.max(0, (int) Math.floor((minY - originY) / pitchY));
+        int lastRow = Math.min(rows - 1, (int) Math.floor((maxY - originY) / pitchY));
+
+        int count = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            float cellY = originY + row * pitchY;
+            if (maxY <= cellY || minY >= cellY + brickHeight) {
+                continue; // The box is in the padding between rows
+            }
+            for (int col = firstCol; col <= lastCol && count < length; col++) {
+                int cell = row * cols + col;
+                float cellX = originX + col * pitchX;
+                if (isAlive(cell) && maxX > cellX && minX < cellX + brickWidth) {
+                    out[offset + count++] = cell;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the normal of the surface a box bounces off when it overlaps some bricks.
+     * The box bounces off the brick it overlaps the most, along the axis where it penetrates the least.
+     *
+     * @param minX   The left edge of the box.
+     * @param minY   The top edge of the box.
+     * @param maxX   The right edge of the box.
+     * @param maxY   The bottom edge of the box.
+     * @param bricks The overlapped bricks, as returned by {@link #query}.
+     * @param offset The index of the first overlapped brick in the array.
+     * @param count  The number of overlapped bricks, at least one.
+     * @return One of Vector2.LEFT, RIGHT, UP or DOWN, pointing from the brick towards the box.
+     */
+    public static Vector2 contactNormal(float minX, float minY, float maxX, float maxY, Brick[] bricks,
+                                        int offset, int count) {
+        Vector2 normal = Vector2.UP;
+        float largestOverlap = -1;
+        for (int i = offset; i < offset + count; i++) {
+            Vector2 brickTopLeft = bricks[i].getTopLeftCorner();
+            Vector2 brickDimensions = bricks[i].getDimensions();
+            float overlapX = Math.min(maxX, brickTopLeft.x() + brickDimensions.x()) - Math.max(minX, brickTopLeft.x());
+            float overlapY = Math.min(maxY, brickTopLeft.y() + brickDimensions.y()) - Math.max(minY, brickTopLeft.y());
+            if (overlapX * overlapY > largestOverlap) {
+                largestOverlap = overlapX * overlapY;
+                if (overlapX < overlapY) {
+                    normal = minX + maxX < 2 * brickTopLeft.x() + brickDimensions.x() ? Vector2.LEFT : Vector2.RIGHT;
+                } else {
+                    normal = minY + maxY < 2 * brickTopLeft.y() + brickDimensions.y() ? Vector2.UP : Vector2.DOWN;
+                }
+            }
+        }
+        return normal;
+    }
+
+    /**
+     * Finds the normal of the surface a box bounces off when it overlaps some live cells, like
+     * {@link #contactNormal(float, float, float, float, Brick[], int, int)} without materialised bricks.
+     *
+     * @param minX   The left edge of the box.
+     * @param minY   The top edge of the box.
+     * @param maxX   The right edge of the box.
+     * @param maxY   The bottom edge of the box.
+     * @param cells  The overlapped cells, as returned by {@link #queryCells}.
+     * @param offset The index of the first overlapped cell in the array.
+     * @param count  The number of overlapped cells, at least one.
+     * @return One of Vector2.LEFT, RIGHT, UP or DOWN, pointing from the brick towards the box.
+     */
+    public Vector2 contactNormal(float minX, float minY, float maxX, float maxY, int[] cells, int offset,
+                                 int count) {
+        Vector2 normal = Vector2.UP;
+        float largestOverlap = -1;
+        for (int i = offset; i < offset + count; i++) {
+            float cellX = cellLeft(cells[i]);
+            float cellY = cellTop(cells[i]);
+            float overlapX = Math.min(maxX, cellX + brickWidth) - Math.max(minX, cellX);
+            float overlapY = Math.min(maxY, cellY + brickHeight) - Math.max(minY, cellY);
+            if (overlapX * overlapY > largestOverlap) {
+                largestOverlap = overlapX * overlapY;
+                if (overlapX < overlapY) {
+                    normal = minX + maxX < 2 * cellX + brickWidth ? Vector2.LEFT : Vector2.RIGHT;
+                } else {
+                    normal = minY + maxY < 2 * cellY + brickHeight ? Vector2.UP : Vector2.DOWN;
+                }
+            }
+        }
+        return normal;
+    }
+
+    /**
+     * Checks whether a cell holds a brick.
+     *
+     * @param cell The row major index of the cell.
+     * @return true if the cell holds a brick.
+     */
+    private boolean isAlive(int cell) {
+        return (alive[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Finds the cell of a materialised brick from its position.
+     *
+     * @param brick The brick to find.
+     * @return The row major index of the brick's cell, or -1 if the brick is not in the grid.
+     */
+    private int indexOf(Brick brick) {
+        Vector2 topLeft = brick.getTopLeftCorner();
+        int row = Math.round((topLeft.y() - originY) / pitchY);
+        int col = Math.round((topLeft.x() - originX) / pitchX);
+        if (row < 0 || row >= rows || col < 0 || col >= cols || bricks[row * cols + col] != brick) {
+            return -1;
+        }
+        return row * cols + col;
+    }
+}
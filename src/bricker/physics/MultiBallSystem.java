@@ -0,0 +1,369 @@
+package bricker.physics;
+
+import bricker.gameObjects.Brick;
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A particle style system for thousands of simultaneous pucks in multiball mode.
+ * Pucks are not game objects. Their centers and velocities are kept in primitive arrays and are moved,
+ * bounced off the walls and the paddles, and checked against the brick grid in bulk, in loops over those
+ * arrays. With many live pucks, moving them and querying the grid is split across cores, and the brick hits
+ * are resolved deterministically on the game thread at the end of the step. Only a bounded number of pucks
+ * inside the window are shown, through a fixed set of proxy game objects that carry the puck image.
+ *
+ * @author fanteo12
+ */
+public class MultiBallSystem {
+
+    private static final int MAX_BRICK_HITS = 4; // Brick hits kept per puck and step
+    private static final int PARALLEL_THRESHOLD = 4096; // Fewer live pucks are stepped on the game thread
+    private static final int PARALLEL_CHUNK = 1024; // Pucks stepped by a single fork-join task
+    private static final Vector2[] NORMALS = {Vector2.UP, Vector2.DOWN, Vector2.LEFT, Vector2.RIGHT};
+
+    private final float[] x; // Centers
+    private final float[] y;
+    private final float[] vx; // Velocities
+    private final float[] vy;
+    private final float halfWidth;
+    private final float halfHeight;
+    private final float minX; // Bounds of the walls and of the window bottom
+    private final float maxX;
+    private final float minY;
+    private final float fallY;
+    private final GameObject hitter; // The object bricks are told they were hit by
+    private final GameObject[] proxies; // Show the visible pucks
+    private final float[] proxyLeft; // The left edge of each proxy, as last written
+    private final float[] proxyTop; // The top edge of each proxy, as last written
+    private final Renderable image;
+    private final int[] hitCells; // MAX_BRICK_HITS slots per puck, the cells of the bricks hit
+    private final byte[] hitCounts;
+    private final byte[] normals; // Index in NORMALS of the surface each puck bounces off
+    private final int[] claims; // Cells whose brick strategies run at the end of the step, in order
+    private final BitSet claimedCells = new BitSet();
+    private int count;
+
+    /**
+     * Constructs an empty MultiBallSystem.
+     *
+     * @param capacity   The maximal number of live pucks.
+     * @param puckSize   The size of a puck.
+     * @param minX       The right edge of the left wall.
+     * @param maxX       The left edge of the right wall.
+     * @param minY       The bottom edge of the top wall.
+     * @param fallY      The height below which a puck is lost.
+     * @param hitter     The object passed to brick strategies as the object that hit the brick.
+     * @param proxies    The game objects that show the visible pucks. They should not take part in collisions.
+     * @param image      The image of a puck, or null if pucks are not rendered.
+     */
+    public MultiBallSystem(int capacity, Vector2 puckSize, float minX, float maxX, float minY, float fallY,
+                           GameObject hitter, GameObject[] proxies, Renderable image) {
+        this.x = new float[capacity];
+        this.y = new float[capacity];
+        this.vx = new float[capacity];
+        this.vy = new float[capacity];
+        this.hitCells = new int[capacity * MAX_BRICK_HITS];
+        this.hitCounts = new byte[capacity];
+        this.normals = new byte[capacity];
+        this.claims = new int[capacity * MAX_BRICK_HITS];
+        this.halfWidth = puckSize.x() / 2;
+        this.halfHeight = puckSize.y() / 2;
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minY = minY;
+        this.fallY = fallY;
+        this.hitter = hitter;
+        this.proxies = proxies;
+        this.proxyLeft = new float[proxies.length];
+        this.proxyTop = new float[proxies.length];
+        for (int i = 0; i < proxies.length; i++) {
+            Vector2 topLeft = proxies[i].getTopLeftCorner();
+            proxyLeft[i] = topLeft.x();
+            proxyTop[i] = topLeft.y();
+        }
+        this.image = image;
+    }
+
+    /**
+     * Adds a puck.
+     *
+     * @param center    The center of the new puck.
+     * @param velocityX The horizontal velocity of the new puck.
+     * @param velocityY The vertical velocity of the new puck.
+     * @return true if the puck was added, false if the system is full.
+     */
+    public boolean spawn(Vector2 center, float velocityX, float velocityY) {
+        if (count == x.length) {
+            return false;
+        }
+        x[count] = center.x();
+        y[count] = center.y();
+        vx[count] = velocityX;
+        vy[count] = velocityY;
+        count++;
+        return true;
+    }
+
+    /**
+     * @return The number of live pucks.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Moves a range of pucks by their velocities and bounces them off the side and top walls.
+     *
+     * @param from      The first puck to move.
+     * @param to        The puck after the last one to move.
+     * @param deltaTime The time of the step, in seconds.
+     */
+    private void integrate(int from, int to, float deltaTime) {
+        for (int i = from; i < to; i++) {
+            x[i] += vx[i] * deltaTime;
+            y[i] += vy[i] * deltaTime;
+        }
+        float left = minX + halfWidth;
+        float right = maxX - halfWidth;
+        float top = minY + halfHeight;
+        for (int i = from; i < to; i++) {
+            if (x[i] < left) {
+                x[i] = 2 * left - x[i];
+                vx[i] = Math.abs(vx[i]);
+            } else if (x[i] > right) {
+                x[i] = 2 * right - x[i];
+                vx[i] = -Math.abs(vx[i]);
+            }
+            if (y[i] < top) {
+                y[i] = 2 * top - y[i];
+                vy[i] = Math.abs(vy[i]);
+            }
+        }
+    }
+
+    /**
+     * Bounces the pucks that overlap a paddle and move down back up.
+     *
+     * @param paddle The paddle.
+     * @return The number of pucks that bounced.
+     */
+    public int bounceOff(GameObject paddle) {
+        Vector2 topLeft = paddle.getTopLeftCorner();
+        Vector2 dimensions = paddle.getDimensions();
+        float left = topLeft.x() - halfWidth;
+        float right = topLeft.x() + dimensions.x() + halfWidth;
+        float top = topLeft.y() - halfHeight;
+        float bottom = topLeft.y() + dimensions.y() + halfHeight;
+        int bounces = 0;
+        for (int i = 0; i < count; i++) {
+            if (vy[i] > 0 && x[i] > left && x[i] < right && y[i] > top && y[i] < bottom) {
+                vy[i] = -vy[i];
+                bounces++;
+            }
+        }
+        return bounces;
+    }
+
+    /**
+     * Moves the pucks and finds the live brick cells each of them overlaps. With many live pucks, both are split across
+     * the common fork-join pool, since each puck only writes its own slots. No brick strategy runs here;
+     * the hits are resolved by {@link #resolveBrickHits()} once the step is complete.
+     *
+     * @param deltaTime The time of the step, in seconds.
+     * @param grid      The brick grid, which must not change until the step is complete.
+     */
+    public void move(float deltaTime, BrickGrid grid) {
+        if (count < PARALLEL_THRESHOLD) {
+            moveRange(0, count, deltaTime, grid);
+        } else {
+            ForkJoinPool.commonPool().invoke(new StepTask(0, count, deltaTime, grid));
+        }
+    }
+
+    /**
+     * Resolves the brick hits found by {@link #move}. Every puck that hit a brick bounces off it. When several
+     * pucks hit the same brick, the brick is claimed by the puck with the lowest index, so the result does not
+     * depend on how the step was split across threads. The bricks of the claimed cells are then materialised
+     * and their strategies run, in the order of the pucks that claimed them. Pucks spawned by a strategy are
+     * checked from the next step.
+     *
+     * @param grid The brick grid the hits were found in.
+     */
+    public void resolveBrickHits(BrickGrid grid) {
+        int claimCount = 0;
+        for (int i = 0, live = count; i < live; i++) {
+            int hits = hitCounts[i];
+            if (hits == 0) {
+                continue;
+            }
+            bounce(i, NORMALS[normals[i]]);
+            for (int j = i * MAX_BRICK_HITS; j < i * MAX_BRICK_HITS + hits; j++) {
+                if (!claimedCells.get(hitCells[j])) {
+                    claimedCells.set(hitCells[j]);
+                    claims[claimCount++] = hitCells[j];
+                }
+            }
+            hitCounts[i] = 0;
+        }
+        for (int i = 0; i < claimCount; i++) {
+            claimedCells.clear(claims[i]);
+            Brick brick = grid.materialize(claims[i]);
+            // an earlier strategy of the step may have removed the brick
+            if (brick != null) {
+                brick.hit(hitter);
+            }
+        }
+    }
+
+    /**
+     * Moves a range of pucks and finds their brick hits.
+     *
+     * @param from      The first puck.
+     * @param to        The puck after the last one.
+     * @param deltaTime The time of the step, in seconds.
+     * @param grid      The brick grid.
+     */
+    private void moveRange(int from, int to, float deltaTime, BrickGrid grid) {
+        integrate(from, to, deltaTime);
+        for (int i = from; i < to; i++) {
+            float boxMinX = x[i] - halfWidth;
+            float boxMinY = y[i] - halfHeight;
+            float boxMaxX = x[i] + halfWidth;
+            float boxMaxY = y[i] + halfHeight;
+            int offset = i * MAX_BRICK_HITS;
+            int hits = grid.queryCells(boxMinX, boxMinY, boxMaxX, boxMaxY, hitCells, offset, MAX_BRICK_HITS);
+            hitCounts[i] = (byte) hits;
+            if (hits > 0) {
+                Vector2 normal = grid.contactNormal(boxMinX, boxMinY, boxMaxX, boxMaxY, hitCells, offset, hits);
+                normals[i] = (byte) normalIndex(normal);
+            }
+        }
+    }
+
+    /**
+     * @param normal One of the axis aligned normals.
+     * @return Its index in NORMALS.
+     */
+    private static int normalIndex(Vector2 normal) {
+        for (int i = 0; i < NORMALS.length; i++) {
+            if (NORMALS[i] == normal) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Flips the velocity of a puck along a normal, if the puck moves against it.
+     *
+     * @param i      The puck.
+     * @param normal An axis aligned normal.
+     */
+    void bounce(int i, Vector2 normal) {
+        if (normal.x() * vx[i] < 0) {
+            vx[i] = -vx[i];
+        }
+        if (normal.y() * vy[i] < 0) {
+            vy[i] = -vy[i];
+        }
+    }
+
+    /**
+     * Removes the pucks that fell below the window, moving the last pucks into their slots.
+     *
+     * @return The number of pucks removed.
+     */
+    public int removeFallen() {
+        int removed = 0;
+        for (int i = count - 1; i >= 0; i--) {
+            if (y[i] > fallY) {
+                count--;
+                x[i] = x[count];
+                y[i] = y[count];
+                vx[i] = vx[count];
+                vy[i] = vy[count];
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Moves a proxy onto each of the first pucks that are inside the window, and hides the unused proxies.
+     * Only the edges of a proxy that moved are written, through its transform, so a proxy on a puck that
+     * did not move is left untouched and no vector is built for the proxies.
+     */
+    public void updateProxies() {
+        int shown = 0;
+        for (int i = 0; i < count && shown < proxies.length; i++) {
+            float top = y[i] - halfHeight;
+            if (top < fallY) {
+                int slot = shown++;
+                GameObject proxy = proxies[slot];
+                float left = x[i] - halfWidth;
+                if (left != proxyLeft[slot]) {
+                    proxy.transform().setTopLeftCornerX(left);
+                    proxyLeft[slot] = left;
+                }
+                if (top != proxyTop[slot]) {
+                    proxy.transform().setTopLeftCornerY(top);
+                    proxyTop[slot] = top;
+                }
+                if (proxy.renderer().getRenderable() != image) {
+                    proxy.renderer().setRenderable(image);
+                }
+            }
+        }
+        for (int i = shown; i < proxies.length; i++) {
+            if (proxies[i].renderer().getRenderable() != null) {
+                proxies[i].renderer().setRenderable(null);
+            }
+        }
+    }
+
+    /**
+     * Moves a range of pucks and finds their brick hits, splitting large ranges in two.
+     * Tasks are never serialized.
+     */
+    @SuppressWarnings("serial")
+    private class StepTask extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final float deltaTime;
+        private final BrickGrid grid;
+
+        /**
+         * Constructs a StepTask.
+         *
+         * @param from      The first puck.
+         * @param to        The puck after the last one.
+         * @param deltaTime The time of the step, in seconds.
+         * @param grid      The brick grid.
+         */
+        StepTask(int from, int to, float deltaTime, BrickGrid grid) {
+            this.from = from;
+            this.to = to;
+            this.deltaTime = deltaTime;
+            this.grid = grid;
+        }
+
+        /**
+         * Moves the range directly if it is small, or splits it into two tasks.
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_CHUNK) {
+                moveRange(from, to, deltaTime, grid);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new StepTask(from, middle, deltaTime, grid), new StepTask(middle, to, deltaTime, grid));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package bricker.physics;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+/**
+ * Swept collision tests between a moving axis aligned box and a static one.
+ * A discrete overlap test misses a box that moves further than the size of its target in a single step.
+ * These tests find the fraction of the step at which the moving box first touches the target instead,
+ * so fast balls cannot pass through bricks or paddles.
+ *
+ * @author fanteo12
+ */
+public final class SweptAabb {
+
+    /**
+     * The time of impact returned when the moving box does not hit the target during the step.
+     */
+    public static final float NO_HIT = Float.POSITIVE_INFINITY;
+
+    /**
+     * Prevents instantiation, the class only holds static tests.
+     */
+    private SweptAabb() {
+    }
+
+    /**
+     * Finds when a moving box first touches a static box during a step.
+     *
+     * @param minX    The left edge of the moving box at the start of the step.
+     * @param minY    The top edge of the moving box at the start of the step.
+     * @param width   The width of the moving box.
+     * @param height  The height of the moving box.
+     * @param dx      The horizontal movement of the box during the step.
+     * @param dy      The vertical movement of the box during the step.
+     * @param target  The static box.
+     * @return The fraction of the step, between 0 and 1, at which the boxes first touch, or {@link #NO_HIT}
+     *         if they do not touch during the step or already overlap at its start.
+     */
+    public static float timeOfImpact(float minX, float minY, float width, float height, float dx, float dy,
+                                     GameObject target) {
+        Vector2 targetTopLeft = target.getTopLeftCorner();
+        Vector2 targetDimensions = target.getDimensions();
+        float targetMinX = targetTopLeft.x();
+        float targetMinY = targetTopLeft.y();
+        float entryX = entryTime(minX, width, dx, targetMinX, targetDimensions.x());
+        float entryY = entryTime(minY, height, dy, targetMinY, targetDimensions.y());
+        float exitX = exitTime(minX, width, dx, targetMinX, targetDimensions.x());
+        float exitY = exitTime(minY, height, dy, targetMinY, targetDimensions.y());
+        float entry = Math.max(entryX, entryY);
+        float exit = Math.min(exitX, exitY);
+        if (entry > exit || entry < 0 || entry > 1) {
+            return NO_HIT;
+        }
+        return entry;
+    }
+
+    /**
+     * Finds the normal of the face of a static box that a moving box hits first during a step.
+     * Should be called for boxes that {@link #timeOfImpact} reports as hit.
+     *
+     * @param minX    The left edge of the moving box at the start of the step.
+     * @param minY    The top edge of the moving box at the start of the step.
+     * @param width   The width of the moving box.
+     * @param height  The height of the moving box.
+     * @param dx      The horizontal movement of the box during the step.
+     * @param dy      The vertical movement of the box during the step.
+     * @param target  The static box.
+     * @return One of Vector2.LEFT, RIGHT, UP or DOWN, pointing out of the face that was hit.
+     */
+    public static Vector2 impactNormal(float minX, float minY, float width, float height, float dx, float dy,
+                                       GameObject target) {
+        Vector2 targetTopLeft = target.getTopLeftCorner();
+        Vector2 targetDimensions = target.getDimensions();
+        float entryX = entryTime(minX, width, dx, targetTopLeft.x(), targetDimensions.x());
+        float entryY = entryTime(minY, height, dy, targetTopLeft.y(), targetDimensions.y());
+        // the axis that starts overlapping last is the one whose face was hit
+        if (entryX > entryY) {
+            return dx > 0 ? Vector2.LEFT : Vector2.RIGHT;
+        }
+        return dy > 0 ? Vector2.UP : Vector2.DOWN;
+    }
+
+    /**
+     * Finds when the moving box starts overlapping the target on a single axis.
+     *
+     * @param min          The low edge of the moving box on the axis.
+     * @param size         The size of the moving box on the axis.
+     * @param delta        The movement of the box on the axis.
+     * @param targetMin    The low edge of the target on the axis.
+     * @param targetSize   The size of the target on the axis.
+     * @return The fraction of the step at which the overlap starts, negative infinity if the boxes
+     *         always overlap on the axis, or positive infinity if they never do.
+     */
+    private static float entryTime(float min, float size, float delta, float targetMin, float targetSize) {
+        if (delta == 0) {
+            return overlaps(min, size, targetMin, targetSize) ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+        }
+        float distance = delta > 0 ? targetMin - (min + size) : (targetMin + targetSize) - min;
+        return distance / delta;
+    }
+
+    /**
+     * Finds when the moving box stops overlapping the target on a single axis.
+     *
+     * @param min          The low edge of the moving box on the axis.
+     * @param size         The size of the moving box on the axis.
+     * @param delta        The movement of the box on the axis.
+     * @param targetMin    The low edge of the target on the axis.
+     * @param targetSize   The size of the target on the axis.
+     * @return The fraction of the step at which the overlap ends, positive infinity if the boxes always
+     *         overlap on the axis, or negative infinity if they never do.
+     */
+    private static float exitTime(float min, float size, float delta, float targetMin, float targetSize) {
+        if (delta == 0) {
+            return overlaps(min, size, targetMin, targetSize) ? Float.POSITIVE_INFINITY : Float.NEGATIVE_INFINITY;
+        }
+        float distance = delta > 0 ? (targetMin + targetSize) - min : targetMin - (min + size);
+        return distance / delta;
+    }
+
+    /**
+     * Checks whether two intervals overlap.
+     *
+     * @param min        The low end of the first interval.
+     * @param size       The length of the first interval.
+     * @param targetMin  The low end of the second interval.
+     * @param targetSize The length of the second interval.
+     * @return true if the intervals overlap.
+     */
+    private static boolean overlaps(float min, float size, float targetMin, float targetSize) {
+        return min < targetMin + targetSize && min + size > targetMin;
+    }
+}
@@ -0,0 +1,211 @@
+package bricker.simulation;
+
+import bricker.gameObjects.Ball;
+import bricker.gameObjects.Paddle;
+import bricker.main.BrickerGameManager;
+import bricker.main.FramePhase;
+import bricker.utils.Constants;
+import com.sun.management.ThreadMXBean;
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.awt.event.KeyEvent;
+import java.lang.management.ManagementFactory;
+import java.util.function.LongSupplier;
+
+/**
+ * Checks that the paddle movement, the ball bounce and the brick collision code do not allocate.
+ * Each path is measured on its own, and the bytes allocated by the game thread are read from the JVM's
+ * per-thread counter. None of them may allocate a single byte:
+ * <ul>
+ *     <li>Paddle.update runs on a paddle swept left and right away from the walls. danogl's transform
+ *     allocates whenever an object moves, since its vectors are immutable, so a plain GameObject with the
+ *     same velocity is updated alongside it and its bytes are subtracted: what is left is bricker's code.</li>
+ *     <li>Ball.bounce runs on a ball bounced off horizontal and vertical surfaces in turns, which only
+ *     reads and sets its velocity.</li>
+ *     <li>The BRICK_COLLISIONS phase runs in a headless game, and is measured in the frames in which no
+ *     brick was hit. A hit runs the brick's strategy, which allocates by design, so those frames are left
+ *     out; the frames left are the queries of the brick grid by every ball.</li>
+ * </ul>
+ * Each path is measured in rounds after a warmup round, and only the round that allocated the least counts,
+ * so a one-off allocation of the JVM, such as the compiler replacing a running method, does not fail the
+ * check, while code that allocates in every call fails it in every round.
+ * The result is printed, and reported through the exit code so the check can run unattended: 0 if no path
+ * allocates, 1 if one does, and 2 if the JVM cannot measure allocations.
+ *
+ * @author fanteo12
+ */
+public class AllocationCheck {
+
+    private static final int WARMUP_ROUNDS = 1;
+    private static final int MEASURED_ROUNDS = 3;
+    private static final int DEFAULT_ROUND_FRAMES = 2400;
+    private static final int GAME_SWEEP_FRAMES = 90; // Frames the paddle moves in each direction in the game
+    // Frames the standalone paddle moves in each direction, short enough that it never reaches the walls
+    private static final int PADDLE_SWEEP_FRAMES = 8;
+    private static final int BRICKS_ROW = 7;
+    private static final int BRICKS_IN_ROW = 8;
+    private static final Vector2 WINDOW_DIMENSIONS = Constants.WINDOW_DIMENSIONS;
+    private static final Vector2 PADDLE_SIZE = new Vector2(100, 15);
+    private static final Vector2 PADDLE_POSITION = new Vector2(
+            (WINDOW_DIMENSIONS.x() - PADDLE_SIZE.x()) / 2, WINDOW_DIMENSIONS.y() / 2);
+    private static final Vector2 BALL_SIZE = new Vector2(20, 20);
+    private static final Vector2[] BOUNCE_NORMALS = {Vector2.UP, Vector2.LEFT, Vector2.DOWN, Vector2.RIGHT};
+    private static final int EXIT_FAILED = 1;
+    private static final int EXIT_UNSUPPORTED = 2;
+    private static final String RESULT_FORMAT = "%-16s %8d B over %6d calls, least of %d rounds %s%n";
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final int roundFrames;
+    private int frame; // The frame being run, which decides the key held by the scripted player
+    private HeadlessSimulation simulation; // The game of the brick collision check, replaced when it ends
+
+    /**
+     * Constructs a new AllocationCheck.
+     *
+     * @param roundFrames The number of frames, or calls, in each round of each check.
+     */
+    public AllocationCheck(int roundFrames) {
+        this.roundFrames = roundFrames;
+    }
+
+    /**
+     * Measures Paddle.update against the update of a plain GameObject moving with the same velocity.
+     *
+     * @return true if the paddle allocates nothing beyond danogl's own update.
+     */
+    public boolean checkPaddle() {
+        Paddle paddle = new Paddle(PADDLE_POSITION, PADDLE_SIZE, null,
+                keyCode -> isKeyPressed(keyCode, PADDLE_SWEEP_FRAMES), WINDOW_DIMENSIONS.x());
+        GameObject baseline = new GameObject(PADDLE_POSITION, PADDLE_SIZE, null);
+        frame = 0;
+        return report("Paddle.update", leastBytes(() -> {
+            long bytes = 0;
+            for (int call = 0; call < roundFrames; call++, frame++) {
+                baseline.setVelocity(paddle.getVelocity());
+                long startBytes = THREADS.getCurrentThreadAllocatedBytes();
+                paddle.update(HeadlessSimulation.DEFAULT_FRAME_TIME);
+                long paddleEndBytes = THREADS.getCurrentThreadAllocatedBytes();
+                baseline.update(HeadlessSimulation.DEFAULT_FRAME_TIME);
+                long baselineEndBytes = THREADS.getCurrentThreadAllocatedBytes();
+                bytes += (paddleEndBytes - startBytes) - (baselineEndBytes - paddleEndBytes);
+            }
+            return bytes;
+        }));
+    }
+
+    /**
+     * Measures Ball.bounce off horizontal and vertical surfaces.
+     *
+     * @return true if the bounces allocate nothing.
+     */
+    public boolean checkBounce() {
+        Ball ball = new Ball(Vector2.ZERO, BALL_SIZE, null, null);
+        return report("Ball.bounce", leastBytes(() -> {
+            long bytes = 0;
+            for (int call = 0; call < roundFrames; call++) {
+                Vector2 normal = BOUNCE_NORMALS[call % BOUNCE_NORMALS.length];
+                long startBytes = THREADS.getCurrentThreadAllocatedBytes();
+                ball.bounce(normal);
+                bytes += THREADS.getCurrentThreadAllocatedBytes() - startBytes;
+            }
+            return bytes;
+        }));
+    }
+
+    /**
+     * Measures the BRICK_COLLISIONS phase of headless games in the frames in which no brick was hit.
+     * The paddle is swept from wall to wall, and a new game is started whenever one ends.
+     *
+     * @return true if the phase allocates nothing in those frames.
+     */
+    public boolean checkBrickCollisions() {
+        FramePhase[] phases = FramePhase.values();
+        frame = 0;
+        return report(FramePhase.BRICK_COLLISIONS.name(), leastBytes(() -> {
+            long bytes = 0;
+            int quietFrames = 0;
+            for (; quietFrames < roundFrames; frame++) {
+                if (simulation == null || simulation.isOver()) {
+                    simulation = new HeadlessSimulation(BRICKS_ROW, BRICKS_IN_ROW,
+                            keyCode -> isKeyPressed(keyCode, GAME_SWEEP_FRAMES));
+                }
+                BrickerGameManager gameManager = simulation.getGameManager();
+                long hitsBefore = gameManager.getBrickHitCount();
+                long phaseBytes = 0;
+                for (FramePhase phase : phases) {
+                    long startBytes = THREADS.getCurrentThreadAllocatedBytes();
+                    gameManager.runPhase(phase, HeadlessSimulation.DEFAULT_FRAME_TIME);
+                    if (phase == FramePhase.BRICK_COLLISIONS) {
+                        phaseBytes = THREADS.getCurrentThreadAllocatedBytes() - startBytes;
+                    }
+                }
+                if (gameManager.getBrickHitCount() == hitsBefore) {
+                    bytes += phaseBytes;
+                    quietFrames++;
+                }
+            }
+            return bytes;
+        }));
+    }
+
+    /**
+     * Runs the warmup rounds of a check, then its measured rounds.
+     *
+     * @param round Runs one round and returns the bytes it allocated.
+     * @return The bytes allocated by the measured round that allocated the least.
+     */
+    private static long leastBytes(LongSupplier round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.getAsLong();
+        }
+        long leastBytes = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            leastBytes = Math.min(leastBytes, round.getAsLong());
+        }
+        return leastBytes;
+    }
+
+    /**
+     * Prints the bytes allocated by a path and checks that there are none.
+     *
+     * @param name  The name of the path.
+     * @param bytes The bytes the path allocated in its measured round.
+     * @return true if the path allocated nothing.
+     */
+    private boolean report(String name, long bytes) {
+        boolean passed = bytes <= 0;
+        System.out.printf(RESULT_FORMAT, name, bytes, roundFrames, MEASURED_ROUNDS, passed ? "ok" : "FAILED");
+        return passed;
+    }
+
+    /**
+     * The scripted player: holds the left key and the right key in turns.
+     *
+     * @param keyCode     The key code, as defined in {@link KeyEvent}.
+     * @param sweepFrames The number of frames each key is held.
+     * @return true if the key is held in the current frame.
+     */
+    private boolean isKeyPressed(int keyCode, int sweepFrames) {
+        boolean movingLeft = (frame / sweepFrames) % 2 == 0;
+        return keyCode == (movingLeft ? KeyEvent.VK_LEFT : KeyEvent.VK_RIGHT);
+    }
+
+    /**
+     * Runs the checks and exits with their result.
+     *
+     * @param args Optional command-line arguments: [frames in each round].
+     */
+    public static void main(String[] args) {
+        if (!THREADS.isThreadAllocatedMemorySupported() || !THREADS.isThreadAllocatedMemoryEnabled()) {
+            System.out.println("This JVM does not measure thread allocations");
+            System.exit(EXIT_UNSUPPORTED);
+        }
+        int roundFrames = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_ROUND_FRAMES;
+        AllocationCheck allocationCheck = new AllocationCheck(roundFrames);
+        boolean passed = allocationCheck.checkPaddle();
+        passed &= allocationCheck.checkBounce();
+        passed &= allocationCheck.checkBrickCollisions();
+        System.exit(passed ? 0 : EXIT_FAILED);
+    }
+}
@@ -0,0 +1,139 @@
+package bricker.simulation;
+
+import bricker.main.BrickerGameManager;
+import bricker.main.FramePhase;
+import com.sun.management.ThreadMXBean;
+import danogl.util.Vector2;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the cost of BrickerGameManager frame updates, in total and per {@link FramePhase}.
+ * Each configuration runs a headless game with a brick grid and a number of dynamic objects (pucks and
+ * falling hearts), runs some warmup frames, and then times every phase of every measured frame.
+ * Hearts are spawned near the top of the window so they stay in play for the whole measurement.
+ * The results are printed as one line per configuration and phase, in microseconds and in bytes allocated
+ * per frame. Allocations are read from the JVM's per-thread counter, as in {@link AllocationCheck}, which
+ * fails when the paddle, the ball bounce or the brick collisions allocate.
+ *
+ * @author fanteo12
+ */
+public class FrameBenchmark {
+
+    private static final String DEFAULT_GRIDS = "7x8,50x50,200x200,500x500";
+    private static final String DEFAULT_OBJECTS = "1,10,100,1000,10000";
+    private static final int DEFAULT_MEASURED_FRAMES = 240;
+    private static final int WARMUP_FRAMES = 60;
+    private static final String LIST_SEPARATOR = ",";
+    private static final String GRID_SEPARATOR = "x";
+    private static final Vector2 PUCK_SPAWN_POSITION = new Vector2(400, 300);
+    private static final Vector2 HEART_SPAWN_POSITION = new Vector2(400, 20);
+    private static final float NANOS_IN_MICRO = 1e3f;
+    private static final String RESULT_FORMAT = "%-40s %-16s %12.2f us/frame %10d B/frame%n";
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final int rows;
+    private final int cols;
+    private final int dynamicObjects;
+    private final long[] phaseNanos = new long[FramePhase.values().length];
+    private final long[] phaseBytes = new long[FramePhase.values().length];
+    private long totalNanos;
+    private long totalBytes;
+
+    /**
+     * Constructs a benchmark for a single configuration.
+     *
+     * @param rows           Number of rows of bricks.
+     * @param cols           Number of bricks in each row.
+     * @param dynamicObjects Number of pucks and falling hearts to spawn before measuring.
+     */
+    public FrameBenchmark(int rows, int cols, int dynamicObjects) {
+        this.rows = rows;
+        this.cols = cols;
+        this.dynamicObjects = dynamicObjects;
+    }
+
+    /**
+     * Runs the configuration and records the time spent and the bytes allocated in each phase.
+     *
+     * @param measuredFrames The number of frames to time after the warmup.
+     */
+    public void run(int measuredFrames) {
+        HeadlessSimulation simulation = new HeadlessSimulation(rows, cols, keyCode -> false);
+        BrickerGameManager gameManager = simulation.getGameManager();
+        spawnDynamicObjects(gameManager);
+
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            gameManager.update(HeadlessSimulation.DEFAULT_FRAME_TIME);
+        }
+        FramePhase[] phases = FramePhase.values();
+        for (int i = 0; i < measuredFrames; i++) {
+            for (FramePhase phase : phases) {
+                long startBytes = THREADS.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                gameManager.runPhase(phase, HeadlessSimulation.DEFAULT_FRAME_TIME);
+                long elapsed = System.nanoTime() - start;
+                long allocated = THREADS.getCurrentThreadAllocatedBytes() - startBytes;
+                phaseNanos[phase.ordinal()] += elapsed;
+                phaseBytes[phase.ordinal()] += allocated;
+                totalNanos += elapsed;
+                totalBytes += allocated;
+            }
+        }
+    }
+
+    /**
+     * Prints the mean time and allocated bytes per frame of each phase and of the whole frame.
+     *
+     * @param measuredFrames The number of frames that were timed.
+     */
+    public void printResults(int measuredFrames) {
+        String configuration = rows + GRID_SEPARATOR + cols + " bricks, " + dynamicObjects + " objects";
+        for (FramePhase phase : FramePhase.values()) {
+            System.out.printf(RESULT_FORMAT, configuration, phase,
+                    phaseNanos[phase.ordinal()] / NANOS_IN_MICRO / measuredFrames,
+                    phaseBytes[phase.ordinal()] / measuredFrames);
+        }
+        System.out.printf(RESULT_FORMAT, configuration, "TOTAL",
+                totalNanos / NANOS_IN_MICRO / measuredFrames, totalBytes / measuredFrames);
+    }
+
+    /**
+     * Spawns the dynamic objects, half of them as pucks and half as falling hearts.
+     * Pucks are spawned in groups, so their count is rounded up to a whole group.
+     *
+     * @param gameManager The game manager to spawn into.
+     */
+    private void spawnDynamicObjects(BrickerGameManager gameManager) {
+        int hearts = dynamicObjects / 2;
+        for (int i = 0; i < hearts; i++) {
+            gameManager.createExtraLife(HEART_SPAWN_POSITION);
+        }
+        int pucks = 0;
+        while (pucks < dynamicObjects - hearts) {
+            pucks += gameManager.createPucks(PUCK_SPAWN_POSITION);
+        }
+    }
+
+    /**
+     * Runs the benchmark for every combination of brick grid and dynamic object count.
+     *
+     * @param args Optional command-line arguments: [grids, e.g. 7x8,50x50] [object counts, e.g. 1,100]
+     *             [measured frames].
+     */
+    public static void main(String[] args) {
+        String[] grids = (args.length >= 1 ? args[0] : DEFAULT_GRIDS).split(LIST_SEPARATOR);
+        String[] objects = (args.length >= 2 ? args[1] : DEFAULT_OBJECTS).split(LIST_SEPARATOR);
+        int measuredFrames = args.length >= 3 ? Integer.parseInt(args[2]) : DEFAULT_MEASURED_FRAMES;
+
+        for (String grid : grids) {
+            String[] size = grid.split(GRID_SEPARATOR);
+            for (String objectCount : objects) {
+                FrameBenchmark benchmark = new FrameBenchmark(Integer.parseInt(size[0]),
+                        Integer.parseInt(size[1]), Integer.parseInt(objectCount));
+                benchmark.run(measuredFrames);
+                benchmark.printResults(measuredFrames);
+            }
+        }
+    }
+}
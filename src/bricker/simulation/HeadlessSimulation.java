@@ -0,0 +1,240 @@
+package bricker.simulation;
+
+import bricker.level.LevelLayout;
+import bricker.main.AssetProvider;
+import bricker.main.BrickerGameManager;
+import bricker.utils.Constants;
+import bricker.utils.GameplaySettings;
+import bricker.utils.InputReplay;
+import bricker.utils.InputSource;
+import danogl.gui.Sound;
+import danogl.gui.rendering.Renderable;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Runs the Bricker game rules without a window, images or sound.
+ * The simulation drives a BrickerGameManager directly with a fixed frame time, so it steps as fast
+ * as the CPU allows instead of at the window's frame rate. It is meant for soak tests and batch runs.
+ * A game recorded with the bricker.record system property can be replayed with {@link #replay}, which
+ * rebuilds the recorded game from its seed and level file and feeds it the recorded frame times and
+ * key state.
+ *
+ * @author fanteo12
+ */
+public class HeadlessSimulation {
+
+    /**
+     * The default time step of a simulated frame, in seconds.
+     */
+    public static final float DEFAULT_FRAME_TIME = 1 / 60f;
+
+    private static final int DEFAULT_FRAMES = 100_000;
+    private static final int DEFAULT_BRICKS_ROW = 7;
+    private static final int DEFAULT_BRICKS_IN_ROW = 8;
+    private static final float NANOS_IN_SECOND = 1e9f;
+    private static final String REPLAY_ARGUMENT = "--replay";
+
+    private final BrickerGameManager gameManager;
+    private String result; // The end game prompt, or null while the game is running
+    private long frames;
+
+    /**
+     * Constructs a headless simulation with the given brick layout.
+     *
+     * @param numOfBricksRows Number of rows of bricks.
+     * @param numOfBricksCols Number of bricks in each row.
+     * @param inputSource     The key state seen by the game, for example a scripted player.
+     */
+    public HeadlessSimulation(int numOfBricksRows, int numOfBricksCols, InputSource inputSource) {
+        this.gameManager = new BrickerGameManager(Constants.WINDOW_TITLE, Constants.WINDOW_DIMENSIONS,
+                numOfBricksRows, numOfBricksCols);
+        this.gameManager.initializeSimulation(new NoAssets(), inputSource, this::endGame);
+    }
+
+    /**
+     * Constructs a headless simulation of a seeded game.
+     *
+     * @param numOfBricksRows Number of rows of bricks.
+     * @param numOfBricksCols Number of bricks in each row.
+     * @param inputSource     The key state seen by the game, for example a scripted player.
+     * @param seed            The seed of the game.
+     */
+    public HeadlessSimulation(int numOfBricksRows, int numOfBricksCols, InputSource inputSource, long seed) {
+        this.gameManager = new BrickerGameManager(Constants.WINDOW_TITLE, Constants.WINDOW_DIMENSIONS,
+                numOfBricksRows, numOfBricksCols);
+        this.gameManager.setSeed(seed);
+        this.gameManager.initializeSimulation(new NoAssets(), inputSource, this::endGame);
+    }
+
+    /**
+     * Constructs a headless simulation of a seeded game on a level file.
+     *
+     * @param levelLayout The layout of the bricks.
+     * @param inputSource The key state seen by the game, for example a scripted player.
+     * @param seed        The seed of the game.
+     */
+    public HeadlessSimulation(LevelLayout levelLayout, InputSource inputSource, long seed) {
+        this.gameManager = new BrickerGameManager(Constants.WINDOW_TITLE, Constants.WINDOW_DIMENSIONS,
+                levelLayout);
+        this.gameManager.setSeed(seed);
+        this.gameManager.initializeSimulation(new NoAssets(), inputSource, this::endGame);
+    }
+
+    /**
+     * Replays a recorded game as fast as the CPU allows, until the game ends or the recording runs out.
+     * A game recorded on a level file is replayed on the same file, which must not have changed since, and
+     * the gameplay settings of the JVM must be those the game was recorded with. Logs written before the
+     * settings were recorded are replayed with the current settings.
+     *
+     * @param replay The recording, as loaded by {@link InputReplay#load}, positioned before its first frame.
+     * @return The simulation after the replay, with its result and number of frames.
+     * @throws IOException if the level file of the recording cannot be loaded or has changed, or if the
+     *                     gameplay settings differ from the recorded ones.
+     */
+    public static HeadlessSimulation replay(InputReplay replay) throws IOException {
+        GameplaySettings recordedSettings = replay.getGameplaySettings();
+        GameplaySettings settings = BrickerGameManager.gameplaySettings();
+        if (recordedSettings != null && !recordedSettings.equals(settings)) {
+            throw new IOException("The game was recorded with " + recordedSettings + ", but is replayed with "
+                    + settings + "; set the recorded system properties to replay it");
+        }
+        HeadlessSimulation simulation;
+        if (replay.getLevelPath() != null) {
+            LevelLayout levelLayout = LevelLayout.load(replay.getLevelPath());
+            if (levelLayout.getChecksum() != replay.getLevelChecksum()) {
+                throw new IOException("Level file " + replay.getLevelPath() + " changed since it was recorded");
+            }
+            simulation = new HeadlessSimulation(levelLayout, replay, replay.getSeed());
+        } else {
+            simulation = new HeadlessSimulation(replay.getNumOfBricksRows(), replay.getNumOfBricksCols(), replay,
+                    replay.getSeed());
+        }
+        while (!simulation.isOver() && replay.hasNextFrame()) {
+            simulation.step(replay.peekFrameTime());
+        }
+        return simulation;
+    }
+
+    /**
+     * Advances the simulation by one frame, unless the game has already ended.
+     *
+     * @param deltaTime The simulated time of the frame, in seconds.
+     */
+    public void step(float deltaTime) {
+        if (isOver()) {
+            return;
+        }
+        gameManager.update(deltaTime);
+        frames++;
+    }
+
+    /**
+     * Advances the simulation until the game ends or the frame limit is reached.
+     *
+     * @param maxFrames The maximal number of frames to run.
+     * @param deltaTime The simulated time of each frame, in seconds.
+     * @return The number of frames that were run.
+     */
+    public long run(long maxFrames, float deltaTime) {
+        long start = frames;
+        while (!isOver() && frames - start < maxFrames) {
+            step(deltaTime);
+        }
+        return frames - start;
+    }
+
+    /**
+     * @return true if the game has been won or lost.
+     */
+    public boolean isOver() {
+        return result != null;
+    }
+
+    /**
+     * @return The end game prompt, or null if the game is still running.
+     */
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * @return The number of frames run so far.
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * @return The game manager driven by this simulation.
+     */
+    public BrickerGameManager getGameManager() {
+        return gameManager;
+    }
+
+    /**
+     * Records the end of the game instead of opening a dialog.
+     *
+     * @param prompt The end game prompt.
+     */
+    private void endGame(String prompt) {
+        if (result == null) {
+            result = prompt;
+        }
+    }
+
+    /**
+     * Runs a headless game with no key pressed, or replays a recorded game, and prints how fast it ran.
+     *
+     * @param args Optional command-line arguments: [number of frames] or
+     *             [number of frames, number of rows, number of columns] or
+     *             [--replay, recording file].
+     * @throws IOException if the recording cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 2 && REPLAY_ARGUMENT.equals(args[0])) {
+            InputReplay replay = InputReplay.load(Paths.get(args[1]));
+            long start = System.nanoTime();
+            HeadlessSimulation simulation = replay(replay);
+            float seconds = (System.nanoTime() - start) / NANOS_IN_SECOND;
+            System.out.printf("replayed %d frames of seed %d in %.3f s, result: %s%n", simulation.getFrames(),
+                    replay.getSeed(), seconds, simulation.isOver() ? simulation.getResult() : "still running");
+            return;
+        }
+
+        long maxFrames = args.length >= 1 ? Long.parseLong(args[0]) : DEFAULT_FRAMES;
+        int rows = args.length == 3 ? Integer.parseInt(args[1]) : DEFAULT_BRICKS_ROW;
+        int cols = args.length == 3 ? Integer.parseInt(args[2]) : DEFAULT_BRICKS_IN_ROW;
+
+        HeadlessSimulation simulation = new HeadlessSimulation(rows, cols, keyCode -> false);
+        long start = System.nanoTime();
+        long frames = simulation.run(maxFrames, DEFAULT_FRAME_TIME);
+        float seconds = (System.nanoTime() - start) / NANOS_IN_SECOND;
+
+        System.out.printf("%d frames in %.3f s (%.0f frames/s), result: %s%n", frames, seconds,
+                frames / seconds, simulation.isOver() ? simulation.getResult() : "still running");
+    }
+
+    /**
+     * An AssetProvider for headless runs, which provides no images and no sounds.
+     */
+    private static class NoAssets implements AssetProvider {
+
+        /**
+         * @return null, headless objects are not rendered.
+         */
+        @Override
+        public Renderable readImage(String path, boolean useTopLeftPixelAsTransparent) {
+            return null;
+        }
+
+        /**
+         * @return null, headless objects are silent.
+         */
+        @Override
+        public Sound readSound(String path) {
+            return null;
+        }
+    }
+}
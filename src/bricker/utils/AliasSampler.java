@@ -0,0 +1,97 @@
+package bricker.utils;
+
+import java.util.Random;
+
+/**
+ * Samples an index from a fixed discrete distribution in constant time, using the alias method.
+ * The distribution is split into columns of equal probability, each holding at most two outcomes: its own
+ * index and an alias. A sample picks a column uniformly and then one of its two outcomes, so the cost does
+ * not depend on the number of outcomes or on their weights.
+ *
+ * @author fanteo12
+ */
+public class AliasSampler {
+
+    private final double[] probabilities; // The probability of keeping the index of each column
+    private final int[] aliases; // The outcome of each column when its index is not kept
+
+    /**
+     * Constructs an AliasSampler for the given weights.
+     *
+     * @param weights The non negative weight of each outcome, not all zero. The weights need not sum to one.
+     * @throws IllegalArgumentException if there are no weights, a weight is negative, or all weights are zero.
+     */
+    public AliasSampler(double[] weights) {
+        int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("No weights to sample from");
+        }
+        double total = 0;
+        for (double weight : weights) {
+            if (weight < 0 || Double.isNaN(weight)) {
+                throw new IllegalArgumentException("Negative weight: " + weight);
+            }
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("All weights are zero");
+        }
+
+        probabilities = new double[n];
+        aliases = new int[n];
+        // scale the weights so the average column holds exactly one
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        // fill each small column with the excess of a large one
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // the remaining columns are full, up to rounding errors
+        while (largeCount > 0) {
+            probabilities[large[--largeCount]] = 1;
+        }
+        while (smallCount > 0) {
+            probabilities[small[--smallCount]] = 1;
+        }
+    }
+
+    /**
+     * @return The number of outcomes of the distribution.
+     */
+    public int size() {
+        return probabilities.length;
+    }
+
+    /**
+     * Samples an outcome, consuming one int and one double of the given generator.
+     *
+     * @param random The generator to draw from.
+     * @return The index of the sampled outcome.
+     */
+    public int sample(Random random) {
+        int column = random.nextInt(probabilities.length);
+        return random.nextDouble() < probabilities[column] ? column : aliases[column];
+    }
+}
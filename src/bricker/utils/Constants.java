@@ -71,6 +71,11 @@ public class Constants {
      */
     public static final String PADDLE_TAG_NAME = "mainPaddle";
 
+    /**
+     * The tag name assigned to the temporary paddle in the game.
+     */
+    public static final String TEMP_PADDLE_TAG_NAME = "tempPaddle";
+
     /**
      * The tag name assigned to puck objects in the game.
      */
@@ -126,6 +131,11 @@ public class Constants {
 
     // CONSTANTS THAT ARE USED IN MULTIPLE CLASSES //
 
+    /**
+     * The dimensions of the game window, also used as the play area by headless simulations.
+     */
+    public static final Vector2 WINDOW_DIMENSIONS = new Vector2(800, 600);
+
     /**
      * The number of strikes a player has at the start of the game.
      */
@@ -145,4 +155,4 @@ public class Constants {
      * The speed of the main ball.
      */
     public static final float BALL_SPEED = 250;
-}
\ No newline at end of file
+}
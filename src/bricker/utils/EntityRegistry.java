@@ -0,0 +1,134 @@
+package bricker.utils;
+
+import danogl.GameObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the live dynamic entities of the Bricker game indexed by tag and by type.
+ * Per-frame checks look up the few entities they care about (hearts, pucks, paddles) instead of scanning
+ * every game object, including every brick.
+ * Adding and removing an entity take constant time. Removing swaps the last entity of each index into the
+ * removed slot, so an index can be walked backwards while its entities are being removed, and entities added
+ * during the walk are not visited.
+ *
+ * @author fanteo12
+ */
+public class EntityRegistry {
+
+    private final Map<String, Index> byTag = new HashMap<>();
+    private final Map<Class<?>, Index> byType = new HashMap<>();
+
+    /**
+     * Adds an entity, indexed by its current tag and its class.
+     *
+     * @param entity The entity to add. Its tag should be set before it is added.
+     */
+    public void add(GameObject entity) {
+        byTag.computeIfAbsent(entity.getTag(), tag -> new Index()).add(entity);
+        byType.computeIfAbsent(entity.getClass(), type -> new Index()).add(entity);
+    }
+
+    /**
+     * Removes an entity.
+     *
+     * @param entity The entity to remove.
+     * @return true if the entity was registered, false otherwise.
+     */
+    public boolean remove(GameObject entity) {
+        Index tagIndex = byTag.get(entity.getTag());
+        if (tagIndex == null || !tagIndex.remove(entity)) {
+            return false;
+        }
+        byType.get(entity.getClass()).remove(entity);
+        return true;
+    }
+
+    /**
+     * Gets the live entities with a tag.
+     *
+     * @param tag The tag to look up.
+     * @return A read only view of the entities with the tag, which follows later changes.
+     */
+    public List<GameObject> withTag(String tag) {
+        Index index = byTag.get(tag);
+        return index == null ? Collections.emptyList() : index.view;
+    }
+
+    /**
+     * Gets the live entities of a type. Subclasses of the type are not included.
+     *
+     * @param type The exact class to look up.
+     * @param <T>  The type of the entities.
+     * @return A read only view of the entities of the type, which follows later changes.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends GameObject> List<T> ofType(Class<T> type) {
+        Index index = byType.get(type);
+        return index == null ? Collections.emptyList() : (List<T>) index.view;
+    }
+
+    /**
+     * Counts the live entities with a tag.
+     *
+     * @param tag The tag to look up.
+     * @return The number of entities with the tag.
+     */
+    public int count(String tag) {
+        Index index = byTag.get(tag);
+        return index == null ? 0 : index.entities.size();
+    }
+
+    /**
+     * Removes all entities.
+     */
+    public void clear() {
+        byTag.clear();
+        byType.clear();
+    }
+
+    /**
+     * A list of entities with constant time removal.
+     */
+    private static class Index {
+
+        private final List<GameObject> entities = new ArrayList<>();
+        private final List<GameObject> view = Collections.unmodifiableList(entities);
+        private final Map<GameObject, Integer> positions = new IdentityHashMap<>();
+
+        /**
+         * Adds an entity at the end of the list.
+         *
+         * @param entity The entity to add.
+         */
+        void add(GameObject entity) {
+            if (positions.putIfAbsent(entity, entities.size()) == null) {
+                entities.add(entity);
+            }
+        }
+
+        /**
+         * Removes an entity by moving the last entity into its position.
+         *
+         * @param entity The entity to remove.
+         * @return true if the entity was in the list, false otherwise.
+         */
+        boolean remove(GameObject entity) {
+            Integer position = positions.remove(entity);
+            if (position == null) {
+                return false;
+            }
+            GameObject last = entities.remove(entities.size() - 1);
+            if (last != entity) {
+                entities.set(position, last);
+                positions.put(last, position);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package bricker.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Delivers typed game events from the objects they happen to, to the subscribers of their type.
+ * Events are queued when they are published, and delivered together when the queue is dispatched, so the
+ * game state reacts to them at one point of the simulation step instead of in the middle of danogl's
+ * collision handling. A step in which nothing happened dispatches an empty queue and does no other work.
+ * Subscribers are matched by the exact class of the event. A closed bus drops its queued events and
+ * delivers nothing more, so the events of a game that ended are not delivered to the game that follows it.
+ *
+ * @author fanteo12
+ */
+public class EventBus {
+
+    private final Map<Class<?>, List<Consumer<Object>>> subscribers = new HashMap<>();
+    private final List<Object> queue = new ArrayList<>(); // Events published since the last dispatch
+    private boolean closed;
+
+    /**
+     * Subscribes to the events of a type.
+     *
+     * @param type       The class of the events.
+     * @param subscriber Called with each event of the type, in the order they were published.
+     * @param <E>        The type of the events.
+     */
+    public <E> void subscribe(Class<E> type, Consumer<? super E> subscriber) {
+        subscribers.computeIfAbsent(type, key -> new ArrayList<>()).add(event -> subscriber.accept(type.cast(event)));
+    }
+
+    /**
+     * Queues an event, to be delivered on the next dispatch.
+     *
+     * @param event The event to publish.
+     */
+    public void publish(Object event) {
+        if (!closed) {
+            queue.add(event);
+        }
+    }
+
+    /**
+     * Closes the bus: the queued events are dropped, including the rest of a dispatch in progress, and
+     * later events are ignored.
+     */
+    public void close() {
+        closed = true;
+        queue.clear();
+    }
+
+    /**
+     * Delivers every queued event to its subscribers. Events published by the subscribers during the
+     * dispatch are delivered by the same dispatch, after the events before them. A subscriber that closes
+     * the bus stops the dispatch.
+     */
+    public void dispatch() {
+        for (int i = 0; i < queue.size(); i++) {
+            Object event = queue.get(i);
+            List<Consumer<Object>> typeSubscribers = subscribers.get(event.getClass());
+            if (typeSubscribers == null) {
+                continue;
+            }
+            for (Consumer<Object> subscriber : typeSubscribers) {
+                if (closed) {
+                    return;
+                }
+                subscriber.accept(event);
+            }
+        }
+        queue.clear();
+    }
+}
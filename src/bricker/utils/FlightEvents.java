@@ -0,0 +1,107 @@
+package bricker.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The Java Flight Recorder events of the Bricker game.
+ * A recording started with -XX:StartFlightRecording shows each brick hit, the strategies it ran and the
+ * objects they spawned and removed, next to the GC and CPU events of the JVM, so the power-up chains that
+ * cause frame spikes can be found. Events are built and committed with the begin, shouldCommit and commit
+ * pattern of JFR: when recording is off the JIT removes the event objects, so the cost is close to none.
+ * Stack traces are off for all the events, as they are emitted many times per frame.
+ *
+ * @author fanteo12
+ */
+public final class FlightEvents {
+
+    private static final String CATEGORY = "Bricker";
+
+    /**
+     * Prevents instantiation, the class only holds the event types.
+     */
+    private FlightEvents() {
+    }
+
+    /**
+     * A brick was hit, lasting for the whole handling of the hit by its collision strategy.
+     */
+    @Name("bricker.BrickCollision")
+    @Label("Brick Collision")
+    @Description("A brick was hit and its collision strategy ran")
+    @Category({CATEGORY, "Collisions"})
+    @StackTrace(false)
+    public static class BrickCollision extends Event {
+
+        @Label("Brick X")
+        public float brickX;
+
+        @Label("Brick Y")
+        public float brickY;
+
+        @Label("Hit By")
+        @Description("The tag of the object that hit the brick")
+        public String hitBy;
+    }
+
+    /**
+     * A collision strategy ran, lasting for the removal of the brick and the effect of the strategy.
+     */
+    @Name("bricker.StrategyApplied")
+    @Label("Strategy Applied")
+    @Description("A collision strategy ran on a hit brick")
+    @Category({CATEGORY, "Collisions"})
+    @StackTrace(false)
+    public static class StrategyApplied extends Event {
+
+        @Label("Strategy")
+        public String strategy;
+
+        @Label("Depth")
+        @Description("0 for the strategy of the brick, 1 for a behavior combined by a double behavior strategy")
+        public int depth;
+    }
+
+    /**
+     * Objects were spawned by a strategy.
+     */
+    @Name("bricker.EntitySpawn")
+    @Label("Entity Spawn")
+    @Description("Pucks, an extra life or a temporary paddle were spawned")
+    @Category({CATEGORY, "Entities"})
+    @StackTrace(false)
+    public static class EntitySpawn extends Event {
+
+        @Label("Kind")
+        public String kind;
+
+        @Label("Count")
+        public int count;
+    }
+
+    /**
+     * An object was removed from the game objects through the game manager.
+     */
+    @Name("bricker.EntityRemoval")
+    @Label("Entity Removal")
+    @Description("An object was removed from the game objects")
+    @Category({CATEGORY, "Entities"})
+    @StackTrace(false)
+    public static class EntityRemoval extends Event {
+
+        @Label("Kind")
+        @Description("The class of the removed object")
+        public String kind;
+
+        @Label("Layer")
+        public int layer;
+
+        @Label("Removed")
+        @Description("false if the object was not in the game objects anymore")
+        public boolean removed;
+    }
+}
@@ -0,0 +1,138 @@
+package bricker.utils;
+
+import danogl.GameObject;
+
+/**
+ * The events of the Bricker game published on the {@link EventBus}.
+ * Each event is published once, by the object it happened to, when the change happens.
+ *
+ * @author fanteo12
+ */
+public final class GameEvents {
+
+    /**
+     * Prevents instantiation, the class only holds the event types.
+     */
+    private GameEvents() {
+    }
+
+    /**
+     * A brick was removed from the game after it was hit.
+     */
+    public static final class BrickDestroyed {
+
+        private final GameObject brick; // The removed brick
+
+        /**
+         * Constructs a BrickDestroyed event.
+         *
+         * @param brick The removed brick.
+         */
+        public BrickDestroyed(GameObject brick) {
+            this.brick = brick;
+        }
+
+        /**
+         * @return The removed brick.
+         */
+        public GameObject getBrick() {
+            return brick;
+        }
+    }
+
+    /**
+     * A falling heart was caught by the paddle.
+     */
+    public static final class HeartCaught {
+
+        private final GameObject heart; // The caught heart
+
+        /**
+         * Constructs a HeartCaught event.
+         *
+         * @param heart The caught heart.
+         */
+        public HeartCaught(GameObject heart) {
+            this.heart = heart;
+        }
+
+        /**
+         * @return The caught heart.
+         */
+        public GameObject getHeart() {
+            return heart;
+        }
+    }
+
+    /**
+     * A temporary paddle took its last collision.
+     */
+    public static final class PaddleExpired {
+
+        private final GameObject paddle; // The expired paddle
+
+        /**
+         * Constructs a PaddleExpired event.
+         *
+         * @param paddle The expired paddle.
+         */
+        public PaddleExpired(GameObject paddle) {
+            this.paddle = paddle;
+        }
+
+        /**
+         * @return The expired paddle.
+         */
+        public GameObject getPaddle() {
+            return paddle;
+        }
+    }
+
+    /**
+     * A ball fell below the bottom of the window.
+     */
+    public static final class BallLost {
+
+        private final GameObject ball; // The lost ball
+
+        /**
+         * Constructs a BallLost event.
+         *
+         * @param ball The lost ball.
+         */
+        public BallLost(GameObject ball) {
+            this.ball = ball;
+        }
+
+        /**
+         * @return The lost ball.
+         */
+        public GameObject getBall() {
+            return ball;
+        }
+    }
+
+    /**
+     * A ball in turbo mode took the last collision of its turbo.
+     */
+    public static final class TurboExpired {
+
+        private final GameObject ball; // The ball whose turbo ended
+
+        /**
+         * Constructs a TurboExpired event.
+         *
+         * @param ball The ball whose turbo ended.
+         */
+        public TurboExpired(GameObject ball) {
+            this.ball = ball;
+        }
+
+        /**
+         * @return The ball whose turbo ended.
+         */
+        public GameObject getBall() {
+            return ball;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package bricker.utils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The switches that change how a game plays, read by the game manager from system properties.
+ * They are written in the header of an input log, so a replay can check that it runs the game the way it
+ * was recorded: the same seed and input give a different game in endless or multiball mode, or with other
+ * strategy weights.
+ *
+ * @author fanteo12
+ */
+public final class GameplaySettings {
+
+    private final boolean endless; // bricker.endless
+    private final int endlessChunkRows; // bricker.endless.chunkRows
+    private final boolean multiball; // bricker.multiball
+    private final int multiballCapacity; // bricker.multiball.capacity
+    private final int level; // bricker.level
+    private final double[] brickWeights; // bricker.level.<n>.brick
+    private final double[] normalWeights; // bricker.level.<n>.normal
+    private final double[] nestedWeights; // bricker.level.<n>.nested
+
+    /**
+     * Constructs GameplaySettings.
+     *
+     * @param endless           Whether the game is in endless mode.
+     * @param endlessChunkRows  The number of brick rows in each chunk of the endless field.
+     * @param multiball         Whether the pucks are simulated by the multiball system.
+     * @param multiballCapacity The maximal number of pucks of the multiball system.
+     * @param level             The level number, which selects the strategy weights.
+     * @param brickWeights      The weights of the strategy of a brick.
+     * @param normalWeights     The weights of the normal behavior of a double behavior.
+     * @param nestedWeights     The weights of the second behavior of a double behavior.
+     */
+    public GameplaySettings(boolean endless, int endlessChunkRows, boolean multiball, int multiballCapacity,
+                            int level, double[] brickWeights, double[] normalWeights, double[] nestedWeights) {
+        this.endless = endless;
+        this.endlessChunkRows = endlessChunkRows;
+        this.multiball = multiball;
+        this.multiballCapacity = multiballCapacity;
+        this.level = level;
+        this.brickWeights = brickWeights.clone();
+        this.normalWeights = normalWeights.clone();
+        this.nestedWeights = nestedWeights.clone();
+    }
+
+    /**
+     * Writes the settings to an input log.
+     *
+     * @param out The stream to write to.
+     * @throws IOException if the stream cannot be written.
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeBoolean(endless);
+        out.writeInt(endlessChunkRows);
+        out.writeBoolean(multiball);
+        out.writeInt(multiballCapacity);
+        out.writeInt(level);
+        writeWeights(out, brickWeights);
+        writeWeights(out, normalWeights);
+        writeWeights(out, nestedWeights);
+    }
+
+    /**
+     * Reads settings written by {@link #writeTo}.
+     *
+     * @param in The stream to read from.
+     * @return The settings.
+     * @throws IOException if the stream cannot be read.
+     */
+    static GameplaySettings readFrom(DataInputStream in) throws IOException {
+        boolean endless = in.readBoolean();
+        int endlessChunkRows = in.readInt();
+        boolean multiball = in.readBoolean();
+        int multiballCapacity = in.readInt();
+        int level = in.readInt();
+        return new GameplaySettings(endless, endlessChunkRows, multiball, multiballCapacity, level,
+                readWeights(in), readWeights(in), readWeights(in));
+    }
+
+    /**
+     * Writes a list of weights, preceded by its length.
+     *
+     * @param out     The stream to write to.
+     * @param weights The weights.
+     * @throws IOException if the stream cannot be written.
+     */
+    private static void writeWeights(DataOutputStream out, double[] weights) throws IOException {
+        out.writeByte(weights.length);
+        for (double weight : weights) {
+            out.writeDouble(weight);
+        }
+    }
+
+    /**
+     * Reads a list of weights written by {@link #writeWeights}.
+     *
+     * @param in The stream to read from.
+     * @return The weights.
+     * @throws IOException if the stream cannot be read.
+     */
+    private static double[] readWeights(DataInputStream in) throws IOException {
+        double[] weights = new double[in.readUnsignedByte()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = in.readDouble();
+        }
+        return weights;
+    }
+
+    /**
+     * @param other The object to compare to.
+     * @return true if the other object is GameplaySettings with the same switches and weights.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof GameplaySettings)) {
+            return false;
+        }
+        GameplaySettings settings = (GameplaySettings) other;
+        return endless == settings.endless && endlessChunkRows == settings.endlessChunkRows
+                && multiball == settings.multiball && multiballCapacity == settings.multiballCapacity
+                && level == settings.level && Arrays.equals(brickWeights, settings.brickWeights)
+                && Arrays.equals(normalWeights, settings.normalWeights)
+                && Arrays.equals(nestedWeights, settings.nestedWeights);
+    }
+
+    /**
+     * @return A hash code consistent with {@link #equals}.
+     */
+    @Override
+    public int hashCode() {
+        int hash = Boolean.hashCode(endless);
+        hash = 31 * hash + endlessChunkRows;
+        hash = 31 * hash + Boolean.hashCode(multiball);
+        hash = 31 * hash + multiballCapacity;
+        hash = 31 * hash + level;
+        hash = 31 * hash + Arrays.hashCode(brickWeights);
+        hash = 31 * hash + Arrays.hashCode(normalWeights);
+        return 31 * hash + Arrays.hashCode(nestedWeights);
+    }
+
+    /**
+     * @return The settings as the system properties that select them.
+     */
+    @Override
+    public String toString() {
+        String levelPrefix = "bricker.level." + level + ".";
+        return "bricker.endless=" + endless + " bricker.endless.chunkRows=" + endlessChunkRows
+                + " bricker.multiball=" + multiball + " bricker.multiball.capacity=" + multiballCapacity
+                + " bricker.level=" + level + " " + levelPrefix + "brick=" + joinWeights(brickWeights)
+                + " " + levelPrefix + "normal=" + joinWeights(normalWeights)
+                + " " + levelPrefix + "nested=" + joinWeights(nestedWeights);
+    }
+
+    /**
+     * Formats a list of weights the way the system properties list them.
+     *
+     * @param weights The weights.
+     * @return The weights, separated by commas.
+     */
+    private static String joinWeights(double[] weights) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < weights.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(weights[i]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package bricker.utils;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * The format of the input logs written by {@link InputRecorder} and read by {@link InputReplay}.
+ * A log starts with a header: the magic number, the format version, the seed of the game, its number of
+ * brick rows and columns, and the level file of the game with its checksum, the path being empty and the
+ * checksum 0 for a game with a generated layout, and then the {@link GameplaySettings} of the game.
+ * Version 1 logs have neither the level file nor the settings, and version 2 logs have no settings. Both
+ * are still read.
+ * The frames follow as runs of identical frames, each run being the
+ * frame time as a float, the mask of the pressed keys as a byte and the number of frames as an int.
+ * A steady frame rate with no key change is a single run, so a log stays small however long the game is.
+ *
+ * @author fanteo12
+ */
+final class InputLog {
+
+    /**
+     * The first bytes of every input log.
+     */
+    static final int MAGIC = 0x42524B52; // "BRKR"
+
+    /**
+     * The version of the log format.
+     */
+    static final short VERSION = 3;
+
+    /**
+     * The version of the log format whose header ends after the level file, without the gameplay settings.
+     */
+    static final short VERSION_WITHOUT_SETTINGS = 2;
+
+    /**
+     * The first version of the log format, whose header ends after the brick rows and columns.
+     */
+    static final short VERSION_WITHOUT_LEVEL = 1;
+
+    /**
+     * The keys read by the game, in the order of their bits in a key mask.
+     */
+    static final int[] RECORDED_KEYS = {KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_W};
+
+    /**
+     * Prevents instantiation, the class only holds the format constants.
+     */
+    private InputLog() {
+    }
+
+    /**
+     * Finds the bit of a key in a key mask.
+     *
+     * @param keyCode The key code, as defined in {@link KeyEvent}.
+     * @return The bit of the key, or 0 if the key is not recorded.
+     */
+    static int keyBit(int keyCode) {
+        for (int i = 0; i < RECORDED_KEYS.length; i++) {
+            if (RECORDED_KEYS[i] == keyCode) {
+                return 1 << i;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,132 @@
+package bricker.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * An InputSource that records the key state of every frame of a game.
+ * At the start of each frame it samples the keys the game reads from the live source, and answers all
+ * the reads of the frame from that sample, so the paddles and the end game check see the same state.
+ * The frame times and key masks are kept as runs of identical frames, and written as an input log that
+ * {@link InputReplay} replays.
+ *
+ * @author fanteo12
+ */
+public class InputRecorder implements InputSource {
+
+    private final InputSource source; // The live key state
+    private final ByteArrayOutputStream runsBuffer = new ByteArrayOutputStream();
+    private final DataOutputStream runs = new DataOutputStream(runsBuffer); // The completed runs
+    private int mask; // The keys pressed in the current frame
+    private float runDeltaTime; // The frame time of the current run
+    private int runMask; // The key mask of the current run
+    private int runLength; // The number of frames in the current run
+    private long frames;
+
+    /**
+     * Constructs an InputRecorder.
+     *
+     * @param source The live key state to record.
+     */
+    public InputRecorder(InputSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Samples the key state of the frame and appends the frame to the recording.
+     *
+     * @param deltaTime The time of the frame, in seconds.
+     */
+    @Override
+    public void beginFrame(float deltaTime) {
+        mask = 0;
+        for (int i = 0; i < InputLog.RECORDED_KEYS.length; i++) {
+            if (source.isKeyPressed(InputLog.RECORDED_KEYS[i])) {
+                mask |= 1 << i;
+            }
+        }
+        if (runLength > 0 && (mask != runMask || Float.floatToIntBits(deltaTime)
+                != Float.floatToIntBits(runDeltaTime))) {
+            writeRun(runs);
+            runLength = 0;
+        }
+        runDeltaTime = deltaTime;
+        runMask = mask;
+        runLength++;
+        frames++;
+    }
+
+    /**
+     * Checks whether a key is pressed in the current frame. Keys the game does not read are passed
+     * through to the live source.
+     *
+     * @param keyCode The key code, as defined in {@link java.awt.event.KeyEvent}.
+     * @return true if the key is pressed, false otherwise.
+     */
+    @Override
+    public boolean isKeyPressed(int keyCode) {
+        int bit = InputLog.keyBit(keyCode);
+        if (bit == 0) {
+            return source.isKeyPressed(keyCode);
+        }
+        return (mask & bit) != 0;
+    }
+
+    /**
+     * @return The number of frames recorded so far.
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Writes the recording as an input log. The recording can continue after it is written.
+     *
+     * @param path            The file to write, replaced if it exists.
+     * @param seed            The seed of the recorded game.
+     * @param numOfBricksRows The number of rows of bricks of the recorded game.
+     * @param numOfBricksCols The number of bricks in each row of the recorded game.
+     * @param levelPath       The level file of the recorded game, or null if its layout was generated.
+     * @param levelChecksum   The checksum of the level file, ignored if there is none.
+     * @param settings        The gameplay settings of the recorded game.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writeTo(Path path, long seed, int numOfBricksRows, int numOfBricksCols, Path levelPath,
+                        long levelChecksum, GameplaySettings settings) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(InputLog.MAGIC);
+            out.writeShort(InputLog.VERSION);
+            out.writeLong(seed);
+            out.writeInt(numOfBricksRows);
+            out.writeInt(numOfBricksCols);
+            out.writeUTF(levelPath != null ? levelPath.toString() : "");
+            out.writeLong(levelPath != null ? levelChecksum : 0);
+            settings.writeTo(out);
+            runs.flush();
+            runsBuffer.writeTo(out);
+            if (runLength > 0) {
+                writeRun(out);
+            }
+        }
+    }
+
+    /**
+     * Writes the current run.
+     *
+     * @param out The stream to write to.
+     * @throws IllegalStateException if the in-memory stream fails, which it does not.
+     */
+    private void writeRun(DataOutputStream out) {
+        try {
+            out.writeFloat(runDeltaTime);
+            out.writeByte(runMask);
+            out.writeInt(runLength);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to record a frame run", e);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package bricker.utils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * An InputSource that replays an input log written by {@link InputRecorder}.
+ * The whole log is read into memory when it is loaded. Every frame the game begins moves the replay to
+ * the key mask of the next recorded frame, and {@link #peekFrameTime()} gives the time of that frame, so a
+ * driver can run the recorded game again frame by frame, as fast as the CPU allows.
+ *
+ * @author fanteo12
+ */
+public class InputReplay implements InputSource {
+
+    private static final int INITIAL_RUNS = 64;
+
+    private final long seed;
+    private final int numOfBricksRows;
+    private final int numOfBricksCols;
+    private final Path levelPath; // The level file of the recorded game, or null for a generated layout
+    private final long levelChecksum;
+    private final GameplaySettings settings; // Null if the log predates the settings
+    private final float[] runDeltaTimes; // The frame time of each run
+    private final byte[] runMasks; // The key mask of each run
+    private final int[] runLengths; // The number of frames of each run
+    private final int numOfRuns;
+    private int run; // The run of the next frame
+    private int framesLeftInRun; // The frames left in the run of the next frame
+    private int mask; // The keys pressed in the current frame
+
+    /**
+     * Constructs an InputReplay from the contents of a log.
+     *
+     * @param seed            The seed of the recorded game.
+     * @param numOfBricksRows The number of rows of bricks of the recorded game.
+     * @param numOfBricksCols The number of bricks in each row of the recorded game.
+     * @param levelPath       The level file of the recorded game, or null if its layout was generated.
+     * @param levelChecksum   The checksum of the level file.
+     * @param settings        The gameplay settings of the recorded game, or null if the log has none.
+     * @param runDeltaTimes   The frame time of each run.
+     * @param runMasks        The key mask of each run.
+     * @param runLengths      The number of frames of each run.
+     * @param numOfRuns       The number of runs.
+     */
+    private InputReplay(long seed, int numOfBricksRows, int numOfBricksCols, Path levelPath, long levelChecksum,
+                        GameplaySettings settings, float[] runDeltaTimes, byte[] runMasks, int[] runLengths,
+                        int numOfRuns) {
+        this.seed = seed;
+        this.numOfBricksRows = numOfBricksRows;
+        this.numOfBricksCols = numOfBricksCols;
+        this.levelPath = levelPath;
+        this.levelChecksum = levelChecksum;
+        this.settings = settings;
+        this.runDeltaTimes = runDeltaTimes;
+        this.runMasks = runMasks;
+        this.runLengths = runLengths;
+        this.numOfRuns = numOfRuns;
+        this.framesLeftInRun = numOfRuns > 0 ? runLengths[0] : 0;
+    }
+
+    /**
+     * Loads an input log.
+     *
+     * @param path The file to read.
+     * @return The replay of the log, positioned before its first frame.
+     * @throws IOException if the file cannot be read or is not an input log.
+     */
+    public static InputReplay load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != InputLog.MAGIC) {
+                throw new IOException("Not an input log: " + path);
+            }
+            short version = in.readShort();
+            if (version != InputLog.VERSION && version != InputLog.VERSION_WITHOUT_SETTINGS
+                    && version != InputLog.VERSION_WITHOUT_LEVEL) {
+                throw new IOException("Unsupported input log version " + version + ": " + path);
+            }
+            long seed = in.readLong();
+            int rows = in.readInt();
+            int cols = in.readInt();
+            Path levelPath = null;
+            long levelChecksum = 0;
+            if (version != InputLog.VERSION_WITHOUT_LEVEL) {
+                String level = in.readUTF();
+                levelChecksum = in.readLong();
+                levelPath = level.isEmpty() ? null : Paths.get(level);
+            }
+            GameplaySettings settings = version == InputLog.VERSION ? GameplaySettings.readFrom(in) : null;
+
+            float[] deltaTimes = new float[INITIAL_RUNS];
+            byte[] masks = new byte[INITIAL_RUNS];
+            int[] lengths = new int[INITIAL_RUNS];
+            int count = 0;
+            while (true) {
+                float deltaTime;
+                try {
+                    deltaTime = in.readFloat();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (count == deltaTimes.length) {
+                    deltaTimes = Arrays.copyOf(deltaTimes, count * 2);
+                    masks = Arrays.copyOf(masks, count * 2);
+                    lengths = Arrays.copyOf(lengths, count * 2);
+                }
+                deltaTimes[count] = deltaTime;
+                masks[count] = in.readByte();
+                lengths[count] = in.readInt();
+                count++;
+            }
+            return new InputReplay(seed, rows, cols, levelPath, levelChecksum, settings, deltaTimes, masks, lengths,
+                    count);
+        }
+    }
+
+    /**
+     * @return The seed of the recorded game.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return The number of rows of bricks of the recorded game.
+     */
+    public int getNumOfBricksRows() {
+        return numOfBricksRows;
+    }
+
+    /**
+     * @return The number of bricks in each row of the recorded game.
+     */
+    public int getNumOfBricksCols() {
+        return numOfBricksCols;
+    }
+
+    /**
+     * @return The level file of the recorded game, or null if its brick layout was generated.
+     */
+    public Path getLevelPath() {
+        return levelPath;
+    }
+
+    /**
+     * @return The checksum of the level file of the recorded game, as given by LevelLayout.getChecksum.
+     */
+    public long getLevelChecksum() {
+        return levelChecksum;
+    }
+
+    /**
+     * @return The gameplay settings of the recorded game, or null if the log was written before they were
+     * recorded.
+     */
+    public GameplaySettings getGameplaySettings() {
+        return settings;
+    }
+
+    /**
+     * @return true if there are recorded frames left to replay.
+     */
+    public boolean hasNextFrame() {
+        return run < numOfRuns;
+    }
+
+    /**
+     * @return The time of the next recorded frame, in seconds.
+     * @throws IllegalStateException if there are no frames left.
+     */
+    public float peekFrameTime() {
+        if (!hasNextFrame()) {
+            throw new IllegalStateException("No recorded frames left");
+        }
+        return runDeltaTimes[run];
+    }
+
+    /**
+     * Moves to the key mask of the next recorded frame. Past the end of the log, no key is pressed.
+     *
+     * @param deltaTime The time of the frame, in seconds.
+     */
+    @Override
+    public void beginFrame(float deltaTime) {
+        if (!hasNextFrame()) {
+            mask = 0;
+            return;
+        }
+        mask = runMasks[run];
+        if (--framesLeftInRun == 0 && ++run < numOfRuns) {
+            framesLeftInRun = runLengths[run];
+        }
+    }
+
+    /**
+     * Checks whether a key was pressed in the current recorded frame.
+     *
+     * @param keyCode The key code, as defined in {@link java.awt.event.KeyEvent}.
+     * @return true if the key was pressed, false otherwise.
+     */
+    @Override
+    public boolean isKeyPressed(int keyCode) {
+        return (mask & InputLog.keyBit(keyCode)) != 0;
+    }
+}
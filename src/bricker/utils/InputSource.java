@@ -0,0 +1,30 @@
+package bricker.utils;
+
+/**
+ * A source of keyboard state for the Bricker game.
+ * The game reads keys only through this interface, so it can be driven by danogl's
+ * UserInputListener in a window, or by a scripted source in a headless simulation.
+ *
+ * @author fanteo12
+ */
+@FunctionalInterface
+public interface InputSource {
+
+    /**
+     * Checks whether a key is currently pressed.
+     *
+     * @param keyCode The key code, as defined in {@link java.awt.event.KeyEvent}.
+     * @return true if the key is pressed, false otherwise.
+     */
+    boolean isKeyPressed(int keyCode);
+
+    /**
+     * Called by the game at the start of every frame, before any key is read. Sources that record or
+     * replay the key state use it to move to the next frame. The default implementation does nothing.
+     *
+     * @param deltaTime The time of the frame, in seconds.
+     */
+    default void beginFrame(float deltaTime) {
+        // live sources have no notion of frames
+    }
+}
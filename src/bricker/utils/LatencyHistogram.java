@@ -0,0 +1,148 @@
+package bricker.utils;
+
+import java.util.Arrays;
+
+/**
+ * Counts latencies in buckets whose width grows with the value, in the style of an HDR histogram.
+ * Values below SUB_BUCKETS have a bucket each, and every doubling of the value above that is split into
+ * SUB_BUCKETS / 2 equal buckets, so any recorded value is known to within one part in 64 (about 1.6%).
+ * Recording is a few shifts and an array increment, with no allocation, so it can run on every frame.
+ * Values are in whatever unit the caller records, typically nanoseconds.
+ *
+ * @author fanteo12
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // Buckets of width one, below the first doubling
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2; // Buckets in every doubling after that
+    private static final int MAX_VALUE_BITS = 40; // Values from 2^40 (about 18 minutes in ns) are clamped
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final double PERCENT = 100.0;
+
+    private final long[] counts = new long[bucketIndex(MAX_VALUE) + 1];
+    private long totalCount;
+    private long sum; // Sum of the recorded values, for the mean
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Records a single value.
+     *
+     * @param value The value, negative values are counted as zero and huge values as MAX_VALUE.
+     */
+    public void record(long value) {
+        long clamped = Math.min(Math.max(value, 0), MAX_VALUE);
+        counts[bucketIndex(clamped)]++;
+        totalCount++;
+        sum += clamped;
+        min = Math.min(min, clamped);
+        max = Math.max(max, clamped);
+    }
+
+    /**
+     * Finds the bucket of a value.
+     *
+     * @param value A value between 0 and MAX_VALUE.
+     * @return The index of its bucket.
+     */
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        // keep the top SUB_BUCKET_BITS bits of the value, the shift tells the doubling it falls in
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Finds the highest value counted in a bucket.
+     *
+     * @param index The index of the bucket.
+     * @return The highest value that falls in the bucket.
+     */
+    private static long highestValueIn(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / HALF_SUB_BUCKETS - 1;
+        long subBucket = index - (long) shift * HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Estimates the value below which a given share of the recorded values fall.
+     *
+     * @param percentile The share, between 0 and 100.
+     * @return The highest value of the bucket holding the percentile, capped by the largest recorded value,
+     * or 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, PERCENT) / PERCENT * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Adds the values recorded in another histogram to this one.
+     *
+     * @param other The histogram to add.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Forgets every recorded value.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /**
+     * @return The number of recorded values.
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return The smallest recorded value, or 0 if nothing was recorded.
+     */
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    /**
+     * @return The largest recorded value, or 0 if nothing was recorded.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * @return The mean of the recorded values, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+}
@@ -0,0 +1,108 @@
+package bricker.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of reusable objects.
+ * Objects are taken with {@link #acquire()} and handed back with {@link #release(Object)} once they leave the
+ * game. The caller resets the state of an acquired object before using it. The pool counts its hits, misses
+ * and allocations, so its capacity can be tuned.
+ *
+ * @param <T> The type of the pooled objects.
+ * @author fanteo12
+ */
+public class ObjectPool<T> {
+
+    private final int capacity;
+    private final Supplier<T> factory;
+    private final Deque<T> free;
+    private long hits;
+    private long misses;
+    private long discarded;
+
+    /**
+     * Constructs an empty ObjectPool.
+     *
+     * @param capacity The maximal number of free objects kept for reuse.
+     * @param factory  Creates a new object when the pool is empty.
+     */
+    public ObjectPool(int capacity, Supplier<T> factory) {
+        this.capacity = capacity;
+        this.factory = factory;
+        this.free = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Takes a free object from the pool, or creates one if the pool is empty.
+     *
+     * @return An object whose state should be reset by the caller.
+     */
+    public T acquire() {
+        T object = free.pollFirst();
+        if (object != null) {
+            hits++;
+            return object;
+        }
+        misses++;
+        return factory.get();
+    }
+
+    /**
+     * Hands an object back to the pool. The object must no longer be used by the game.
+     *
+     * @param object The object to reuse.
+     * @return true if the object was kept, false if the pool was full and the object was discarded.
+     */
+    public boolean release(T object) {
+        if (free.size() >= capacity) {
+            discarded++;
+            return false;
+        }
+        free.addFirst(object);
+        return true;
+    }
+
+    /**
+     * @return The maximal number of free objects kept for reuse.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The number of free objects in the pool.
+     */
+    public int getFree() {
+        return free.size();
+    }
+
+    /**
+     * @return The number of acquisitions served by a free object.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return The number of acquisitions that found the pool empty.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return The number of objects created by the pool. Every miss creates one object.
+     */
+    public long getAllocations() {
+        return misses;
+    }
+
+    /**
+     * @return The number of released objects discarded because the pool was full.
+     */
+    public long getDiscarded() {
+        return discarded;
+    }
+}
@@ -0,0 +1,166 @@
+package bricker.utils;
+
+import danogl.gui.Sound;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Mixes the collision sounds of the Bricker game with a fixed pool of voices.
+ * Game objects request sounds through {@link MixedSound#play()}. Requests of the same sound within a frame
+ * are merged, a sound is not replayed before its minimal interval has passed, and no more sounds play at
+ * once than there are voices. The sounds that pass are started on a separate audio thread when the frame is
+ * flushed, so the cost on the game thread stays flat however many balls are live.
+ *
+ * @author fanteo12
+ */
+public class SoundMixer {
+
+    private static final String AUDIO_THREAD_NAME = "bricker-audio";
+
+    private final long[] voiceBusyUntil; // The time at which each voice becomes free, in nanoseconds
+    private final long minIntervalNanos;
+    private final long voiceNanos;
+    private final Map<Sound, MixedSound> mixedSounds = new IdentityHashMap<>();
+    private final List<MixedSound> pending = new ArrayList<>();
+    private ExecutorService audioThread; // Created on the first play
+    private long played;
+    private long merged;
+    private long dropped;
+
+    /**
+     * Constructs a SoundMixer.
+     *
+     * @param voices           The maximal number of sounds playing at once.
+     * @param minIntervalNanos The minimal time between two plays of the same sound, in nanoseconds.
+     * @param voiceNanos       The time a voice is considered busy after starting a sound, in nanoseconds.
+     */
+    public SoundMixer(int voices, long minIntervalNanos, long voiceNanos) {
+        this.voiceBusyUntil = new long[voices];
+        this.minIntervalNanos = minIntervalNanos;
+        this.voiceNanos = voiceNanos;
+    }
+
+    /**
+     * Wraps a sound so its plays go through this mixer. Each sound is wrapped once and shared.
+     *
+     * @param sound The sound to wrap. Can be null.
+     * @return The mixed sound, or null if the sound is null.
+     */
+    public MixedSound mix(Sound sound) {
+        if (sound == null) {
+            return null;
+        }
+        return mixedSounds.computeIfAbsent(sound, MixedSound::new);
+    }
+
+    /**
+     * Starts the sounds requested since the last flush, subject to the rate limit and the free voices.
+     * Called once per frame on the game thread.
+     */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (MixedSound mixedSound : pending) {
+            mixedSound.isPending = false;
+            int voice = freeVoice(now);
+            if (now - mixedSound.lastPlayed < minIntervalNanos || voice < 0) {
+                dropped++;
+                continue;
+            }
+            mixedSound.lastPlayed = now;
+            voiceBusyUntil[voice] = now + voiceNanos;
+            played++;
+            audioThread().execute(mixedSound.playTask);
+        }
+        pending.clear();
+    }
+
+    /**
+     * @return The number of sounds started.
+     */
+    public long getPlayed() {
+        return played;
+    }
+
+    /**
+     * @return The number of requests merged into another request of the same sound in the same frame.
+     */
+    public long getMerged() {
+        return merged;
+    }
+
+    /**
+     * @return The number of requests dropped by the rate limit or for lack of a free voice.
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Finds a voice that is not playing.
+     *
+     * @param now The current time, in nanoseconds.
+     * @return The index of a free voice, or -1 if all voices are busy.
+     */
+    private int freeVoice(long now) {
+        for (int i = 0; i < voiceBusyUntil.length; i++) {
+            if (voiceBusyUntil[i] - now <= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The single daemon thread that starts the sounds.
+     */
+    private ExecutorService audioThread() {
+        if (audioThread == null) {
+            audioThread = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, AUDIO_THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return audioThread;
+    }
+
+    /**
+     * A sound whose plays are requested through the mixer.
+     */
+    public class MixedSound {
+
+        private final Runnable playTask;
+        private boolean isPending;
+        private long lastPlayed;
+
+        /**
+         * Constructs a MixedSound.
+         *
+         * @param sound The sound to play.
+         */
+        private MixedSound(Sound sound) {
+            this.playTask = sound::play;
+            this.lastPlayed = System.nanoTime() - minIntervalNanos;
+        }
+
+        /**
+         * Requests the sound to be played when the mixer is flushed at the end of the frame.
+         */
+        public void play() {
+            if (isPending) {
+                merged++;
+                return;
+            }
+            isPending = true;
+            pending.add(this);
+        }
+    }
+}